@@ -0,0 +1,33 @@
+package com.tabletop.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncBookingConfig {
+    
+    @Value("${booking.async.core-pool-size:8}")
+    private int corePoolSize;
+    
+    @Value("${booking.async.max-pool-size:32}")
+    private int maxPoolSize;
+    
+    @Value("${booking.async.queue-capacity:500}")
+    private int queueCapacity;
+    
+    // Dedicated pool for restaurant API calls so slow partners never hold Tomcat workers
+    @Bean(name = "bookingExecutor")
+    public ThreadPoolTaskExecutor bookingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("booking-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
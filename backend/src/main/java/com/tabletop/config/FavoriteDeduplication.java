@@ -0,0 +1,42 @@
+package com.tabletop.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes duplicate favorites on startup, before the entity manager factory is built.
+ * ddl-auto=update adds the unique (user_id, restaurant_id) key then, and it cannot be
+ * created while duplicate rows exist. The oldest row of each pair is kept.
+ */
+@Component
+public class FavoriteDeduplication {
+    
+    // MySQL cannot select from the table a DELETE targets, except through a derived table
+    private static final String DELETE_DUPLICATES_SQL = 
+        "DELETE FROM favorites WHERE id NOT IN (" +
+        "SELECT kept.id FROM (SELECT MIN(id) AS id FROM favorites GROUP BY user_id, restaurant_id) kept)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @PostConstruct
+    public void removeDuplicates() {
+        try {
+            jdbcTemplate.update(DELETE_DUPLICATES_SQL);
+        } catch (BadSqlGrammarException e) {
+            // No favorites table yet; Hibernate creates it with the key
+        }
+    }
+    
+    @Component
+    static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+        
+        EntityManagerFactoryDependency() {
+            super(FavoriteDeduplication.class);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.tabletop.config;
+
+import com.tabletop.service.PartnerRoutingCache;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class PartnerHttpClientConfig {
+    
+    @Value("${partner.http.max-connections-total:100}")
+    private int maxConnectionsTotal;
+    
+    @Value("${partner.http.max-connections-per-partner:20}")
+    private int maxConnectionsPerPartner;
+    
+    @Value("${partner.http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+    
+    @Value("${partner.http.read-timeout-ms:5000}")
+    private long readTimeoutMs;
+    
+    @Value("${partner.http.total-timeout-ms:8000}")
+    private long totalTimeoutMs;
+    
+    @Value("${partner.http.connection-request-timeout-ms:1000}")
+    private long connectionRequestTimeoutMs;
+    
+    @Value("${partner.http.keep-alive-ms:30000}")
+    private long keepAliveMs;
+    
+    @Value("${partner.http.idle-eviction-ms:60000}")
+    private long idleEvictionMs;
+    
+    // One route per partner host, so the per-route limit is the per-partner limit
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager partnerConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnectionsTotal)
+                .setMaxConnPerRoute(maxConnectionsPerPartner)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .build();
+    }
+    
+    @Bean
+    public RequestConfig partnerRequestConfig() {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .build();
+    }
+    
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient partnerHttpClient(PoolingHttpClientConnectionManager partnerConnectionManager,
+                                                 RequestConfig partnerRequestConfig) {
+        return HttpClients.custom()
+                .setConnectionManager(partnerConnectionManager)
+                .setDefaultRequestConfig(partnerRequestConfig)
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(keepAliveMs))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictionMs))
+                .build();
+    }
+    
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService partnerRequestDeadlines() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "partner-request-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Deadlines of completed requests are cancelled; drop them from the queue right away
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+    
+    @Bean(name = "partnerRestTemplate")
+    public RestTemplate partnerRestTemplate(CloseableHttpClient partnerHttpClient,
+                                            ScheduledExecutorService partnerRequestDeadlines,
+                                            RequestConfig partnerRequestConfig,
+                                            PartnerRoutingCache partnerRoutingCache) {
+        DeadlineRequestFactory requestFactory = 
+                new DeadlineRequestFactory(partnerHttpClient, partnerRequestDeadlines, totalTimeoutMs);
+        
+        // Partners with their own read timeout get a request config derived from the defaults
+        requestFactory.setHttpContextFactory((method, uri) -> {
+            HttpClientContext context = HttpClientContext.create();
+            partnerRoutingCache.findByUrl(uri.toString())
+                    .map(PartnerRoutingCache.PartnerRoute::getReadTimeoutMs)
+                    .ifPresent(readTimeout -> context.setRequestConfig(RequestConfig.copy(partnerRequestConfig)
+                            .setResponseTimeout(Timeout.ofMilliseconds(readTimeout))
+                            .build()));
+            return context;
+        });
+        return new RestTemplate(requestFactory);
+    }
+    
+    /**
+     * Aborts a request once its total deadline passes, covering slow partners that keep
+     * trickling bytes and so never trip the per-read socket timeout. The deadline starts
+     * when the request is executed and is cancelled as soon as the response is closed.
+     */
+    private static class DeadlineRequestFactory extends HttpComponentsClientHttpRequestFactory {
+        
+        private final ScheduledExecutorService deadlines;
+        private final long totalTimeoutMs;
+        
+        // Hands the request built by createHttpUriRequest to createRequest on the same thread
+        private final ThreadLocal<HttpUriRequestBase> createdRequest = new ThreadLocal<>();
+        
+        DeadlineRequestFactory(CloseableHttpClient httpClient, ScheduledExecutorService deadlines, long totalTimeoutMs) {
+            super(httpClient);
+            this.deadlines = deadlines;
+            this.totalTimeoutMs = totalTimeoutMs;
+        }
+        
+        @Override
+        public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+            try {
+                ClientHttpRequest request = super.createRequest(uri, httpMethod);
+                HttpUriRequestBase cancellable = createdRequest.get();
+                return cancellable == null ? request : new DeadlineRequest(request, cancellable);
+            } finally {
+                createdRequest.remove();
+            }
+        }
+        
+        @Override
+        protected ClassicHttpRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+            ClassicHttpRequest request = super.createHttpUriRequest(httpMethod, uri);
+            if (request instanceof HttpUriRequestBase cancellable) {
+                createdRequest.set(cancellable);
+            }
+            return request;
+        }
+        
+        private class DeadlineRequest implements ClientHttpRequest {
+            private final ClientHttpRequest delegate;
+            private final HttpUriRequestBase cancellable;
+            
+            DeadlineRequest(ClientHttpRequest delegate, HttpUriRequestBase cancellable) {
+                this.delegate = delegate;
+                this.cancellable = cancellable;
+            }
+            
+            @Override
+            public ClientHttpResponse execute() throws IOException {
+                ScheduledFuture<?> deadline = deadlines.schedule(cancellable::cancel, totalTimeoutMs, TimeUnit.MILLISECONDS);
+                try {
+                    return new DeadlineResponse(delegate.execute(), deadline);
+                } catch (IOException | RuntimeException e) {
+                    deadline.cancel(false);
+                    throw e;
+                }
+            }
+            
+            @Override
+            public OutputStream getBody() throws IOException {
+                return delegate.getBody();
+            }
+            
+            @Override
+            public HttpMethod getMethod() {
+                return delegate.getMethod();
+            }
+            
+            @Override
+            public URI getURI() {
+                return delegate.getURI();
+            }
+            
+            @Override
+            public HttpHeaders getHeaders() {
+                return delegate.getHeaders();
+            }
+        }
+    }
+    
+    private static class DeadlineResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final ScheduledFuture<?> deadline;
+        
+        DeadlineResponse(ClientHttpResponse delegate, ScheduledFuture<?> deadline) {
+            this.delegate = delegate;
+            this.deadline = deadline;
+        }
+        
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+        
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+        
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+        
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+        
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                deadline.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.tabletop.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Widens restaurant_stats.rating_sum to two decimals, the scale of review ratings.
+ * ddl-auto=update adds missing columns but never changes existing ones, so tables created
+ * with one decimal are altered here before the entity manager factory is built.
+ */
+@Component
+public class RatingSumScaleMigration {
+    
+    private static final int SCALE = 2;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @PostConstruct
+    public void widenRatingSum() {
+        Integer scale;
+        try {
+            scale = jdbcTemplate.query("SELECT rating_sum FROM restaurant_stats WHERE 1 = 0",
+                    (ResultSetExtractor<Integer>) resultSet -> resultSet.getMetaData().getScale(1));
+        } catch (BadSqlGrammarException e) {
+            // No restaurant_stats table yet; Hibernate creates it with the right scale
+            return;
+        }
+        if (scale != null && scale < SCALE) {
+            jdbcTemplate.execute("ALTER TABLE restaurant_stats MODIFY rating_sum DECIMAL(12, " + SCALE + ") NOT NULL");
+        }
+    }
+    
+    @Component
+    static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+        
+        EntityManagerFactoryDependency() {
+            super(RatingSumScaleMigration.class);
+        }
+    }
+}
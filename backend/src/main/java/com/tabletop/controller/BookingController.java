@@ -1,12 +1,19 @@
 package com.tabletop.controller;
 
+import com.tabletop.dto.AvailabilityGridDTO;
+import com.tabletop.dto.BatchBookingResultDTO;
 import com.tabletop.dto.BookingDTO;
 import com.tabletop.entity.Booking;
 import com.tabletop.service.BookingService;
+import com.tabletop.service.IdempotencyStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -18,30 +25,98 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
     
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+    
+    private static final String BEARER_PREFIX = "Bearer ";
+    
+    // List endpoints are keyset-paginated newest first; follow the X-Next-Cursor header for the next page
     @GetMapping
-    public ResponseEntity<List<BookingDTO>> getAllBookings() {
-        List<BookingDTO> bookings = bookingService.getAllBookings();
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<List<BookingDTO>> getAllBookings(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        
+        int pageSize = CursorPagination.pageSize(limit);
+        List<BookingDTO> bookings = bookingService.getAllBookings(
+                CursorPagination.beforeId(cursor), pageSize + 1);
+        return CursorPagination.respond(bookings, pageSize, BookingDTO::getId);
     }
     
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<BookingDTO>> getBookingsByUser(@PathVariable Long userId) {
-        List<BookingDTO> bookings = bookingService.getBookingsByUser(userId);
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<List<BookingDTO>> getBookingsByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        
+        int pageSize = CursorPagination.pageSize(limit);
+        List<BookingDTO> bookings = bookingService.getBookingsByUser(
+                userId, CursorPagination.beforeId(cursor), pageSize + 1);
+        return CursorPagination.respond(bookings, pageSize, BookingDTO::getId);
     }
     
     @GetMapping("/restaurant/{restaurantId}")
-    public ResponseEntity<List<BookingDTO>> getBookingsByRestaurant(@PathVariable Long restaurantId) {
-        List<BookingDTO> bookings = bookingService.getBookingsByRestaurant(restaurantId);
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<List<BookingDTO>> getBookingsByRestaurant(
+            @PathVariable Long restaurantId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        
+        int pageSize = CursorPagination.pageSize(limit);
+        List<BookingDTO> bookings = bookingService.getBookingsByRestaurant(
+                restaurantId, CursorPagination.beforeId(cursor), pageSize + 1);
+        return CursorPagination.respond(bookings, pageSize, BookingDTO::getId);
+    }
+    
+    // Full export as newline-delimited JSON, streamed without loading every booking at once
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportBookings() {
+        StreamingResponseBody body = bookingService::exportBookings;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
     
     @PostMapping
-    public ResponseEntity<BookingDTO> createBooking(@RequestBody BookingDTO bookingDTO) {
-        BookingDTO createdBooking = bookingService.createBooking(bookingDTO);
+    public ResponseEntity<BookingDTO> createBooking(
+            @RequestBody BookingDTO bookingDTO,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestHeader(value = "Authorization", required = false) String authorization) {
+        
+        // Retries carrying the same key get the original booking without a second partner call
+        BookingDTO createdBooking = idempotencyKey != null && !idempotencyKey.isBlank()
+                ? idempotencyStore.execute(idempotencyScope("booking", authorization, bookingDTO),
+                        idempotencyKey, bookingDTO, () -> bookingService.createBooking(bookingDTO))
+                : bookingService.createBooking(bookingDTO);
         return ResponseEntity.ok(createdBooking);
     }
     
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchBookingResultDTO>> createBookingsBatch(@RequestBody List<BookingDTO> bookingDTOs) {
+        List<BatchBookingResultDTO> results = bookingService.createBookingsBatch(bookingDTOs);
+        return ResponseEntity.ok(results);
+    }
+    
+    @GetMapping("/{bookingId}")
+    public ResponseEntity<BookingDTO> getBookingById(@PathVariable Long bookingId) {
+        BookingDTO booking = bookingService.getBookingById(bookingId);
+        return ResponseEntity.ok(booking);
+    }
+    
+    // Returns immediately with the PENDING booking; poll GET /api/bookings/{id} for the outcome
+    @PostMapping("/async")
+    public ResponseEntity<BookingDTO> createBookingAsync(
+            @RequestBody BookingDTO bookingDTO,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestHeader(value = "Authorization", required = false) String authorization) {
+        
+        BookingDTO pendingBooking = idempotencyKey != null && !idempotencyKey.isBlank()
+                ? idempotencyStore.execute(idempotencyScope("async-booking", authorization, bookingDTO),
+                        idempotencyKey, bookingDTO, () -> bookingService.createBookingAsync(bookingDTO))
+                : bookingService.createBookingAsync(bookingDTO);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/bookings/" + pendingBooking.getId()))
+                .body(pendingBooking);
+    }
+    
     @PutMapping("/{bookingId}/status")
     public ResponseEntity<BookingDTO> updateBookingStatus(
             @PathVariable Long bookingId, 
@@ -61,10 +136,48 @@ public class BookingController {
     @GetMapping("/availability")
     public ResponseEntity<Boolean> checkAvailability(
             @RequestParam Long restaurantId,
-            @RequestParam String bookingDateTime) {
+            @RequestParam String bookingDateTime,
+            @RequestParam(defaultValue = "1") int numberOfPeople) {
         
         LocalDateTime dateTime = LocalDateTime.parse(bookingDateTime);
-        boolean isAvailable = bookingService.isTimeSlotAvailable(restaurantId, dateTime);
+        boolean isAvailable = bookingService.isTimeSlotAvailable(restaurantId, dateTime, numberOfPeople);
         return ResponseEntity.ok(isAvailable);
     }
+    
+    @GetMapping("/availability/covers")
+    public ResponseEntity<Integer> getRemainingCovers(
+            @RequestParam Long restaurantId,
+            @RequestParam String bookingDateTime) {
+        
+        LocalDateTime dateTime = LocalDateTime.parse(bookingDateTime);
+        int remainingCovers = bookingService.getRemainingCovers(restaurantId, dateTime);
+        return ResponseEntity.ok(remainingCovers);
+    }
+    
+    @GetMapping("/availability/grid")
+    public ResponseEntity<AvailabilityGridDTO> getAvailabilityGrid(
+            @RequestParam List<Long> restaurantIds,
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(defaultValue = "30") int slotMinutes,
+            @RequestParam(defaultValue = "1") int numberOfPeople) {
+        
+        // Plain dates cover whole days: "from" starts at midnight, "to" runs through the end of that day
+        LocalDateTime fromDateTime = from.length() == 10 
+                ? LocalDate.parse(from).atStartOfDay() : LocalDateTime.parse(from);
+        LocalDateTime toDateTime = to.length() == 10 
+                ? LocalDate.parse(to).plusDays(1).atStartOfDay() : LocalDateTime.parse(to);
+        
+        AvailabilityGridDTO grid = bookingService.getAvailabilityGrid(
+                restaurantIds, fromDateTime, toDateTime, slotMinutes, numberOfPeople);
+        return ResponseEntity.ok(grid);
+    }
+    
+    // Idempotency keys belong to the caller: the token subject when signed in, else the booking's user
+    private String idempotencyScope(String operation, String authorization, BookingDTO bookingDTO) {
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            return operation + ":token:" + authorization.substring(BEARER_PREFIX.length()).trim();
+        }
+        return operation + ":user:" + bookingDTO.getUserId();
+    }
 }
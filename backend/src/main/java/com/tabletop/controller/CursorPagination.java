@@ -0,0 +1,79 @@
+package com.tabletop.controller;
+
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination helpers shared by the list endpoints. Pages are ordered by id, ascending
+ * for the restaurant catalog and descending (newest first) for bookings, reviews and
+ * favorites. The cursor is an opaque token for the last id returned; the next page
+ * continues past it.
+ * Services fetch one row more than the page size so the presence of a next page is known
+ * without a COUNT query.
+ */
+final class CursorPagination {
+    
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+    
+    private static final String CURSOR_PREFIX = "id:";
+    
+    private CursorPagination() {}
+    
+    static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new RuntimeException("Page size must be at least 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+    
+    static long afterId(String cursor) {
+        return decode(cursor, 0L);
+    }
+    
+    static long beforeId(String cursor) {
+        return decode(cursor, Long.MAX_VALUE);
+    }
+    
+    private static long decode(String cursor, long firstPage) {
+        if (cursor == null || cursor.isBlank()) {
+            return firstPage;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException(decoded);
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+    
+    /**
+     * Trims a page fetched with {@code pageSize + 1} rows and adds the next cursor header
+     * when more rows remain.
+     */
+    static <T> ResponseEntity<List<T>> respond(List<T> rows, int pageSize, Function<T, Long> idOf) {
+        if (rows.size() <= pageSize) {
+            return ResponseEntity.ok(rows);
+        }
+        List<T> page = rows.subList(0, pageSize);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, encode(idOf.apply(page.get(pageSize - 1))))
+                .body(page);
+    }
+    
+    private static String encode(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+}
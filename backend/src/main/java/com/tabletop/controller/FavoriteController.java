@@ -1,18 +1,17 @@
 package com.tabletop.controller;
 
 import com.tabletop.dto.FavoriteDTO;
-import com.tabletop.entity.Favorite;
-import com.tabletop.entity.Restaurant;
-import com.tabletop.entity.User;
 import com.tabletop.repository.FavoriteRepository;
-import com.tabletop.repository.RestaurantRepository;
-import com.tabletop.repository.UserRepository;
+import com.tabletop.service.FavoritesIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -20,98 +19,83 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class FavoriteController {
     
-    @Autowired
-    private FavoriteRepository favoriteRepository;
+    private static final int MAX_BATCH_IDS = 500;
     
     @Autowired
-    private UserRepository userRepository;
+    private FavoriteRepository favoriteRepository;
     
     @Autowired
-    private RestaurantRepository restaurantRepository;
+    private FavoritesIndex favoritesIndex;
     
+    // Keyset-paginated newest first; follow the X-Next-Cursor header for the next page
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<FavoriteDTO>> getFavoritesByUser(@PathVariable Long userId) {
-        List<Favorite> favorites = favoriteRepository.findByUserId(userId);
-        List<FavoriteDTO> favoriteDTOs = favorites.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(favoriteDTOs);
+    public ResponseEntity<List<FavoriteDTO>> getFavoritesByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        
+        int pageSize = CursorPagination.pageSize(limit);
+        List<FavoriteDTO> favoriteDTOs = favoriteRepository.findDTOsByUserIdBefore(
+                userId, CursorPagination.beforeId(cursor), Limit.of(pageSize + 1));
+        return CursorPagination.respond(favoriteDTOs, pageSize, FavoriteDTO::getId);
     }
     
     @GetMapping("/user/{userId}/restaurant/{restaurantId}")
     public ResponseEntity<Boolean> isFavorited(@PathVariable Long userId, @PathVariable Long restaurantId) {
+        if (favoritesIndex.isReady()) {
+            return ResponseEntity.ok(favoritesIndex.isFavorited(userId, restaurantId));
+        }
         boolean isFavorited = favoriteRepository.existsByUserIdAndRestaurantId(userId, restaurantId);
         return ResponseEntity.ok(isFavorited);
     }
     
+    // Which of the given restaurants the user has favorited, for a whole page of cards in one call
+    @GetMapping("/user/{userId}/favorited")
+    public ResponseEntity<List<Long>> getFavoritedRestaurantIds(@PathVariable Long userId,
+                                                                @RequestParam List<Long> restaurantIds) {
+        if (restaurantIds.size() > MAX_BATCH_IDS) {
+            throw new RuntimeException("At most " + MAX_BATCH_IDS + " restaurant IDs can be checked at once");
+        }
+        if (favoritesIndex.isReady()) {
+            return ResponseEntity.ok(favoritesIndex.filterFavorited(userId, restaurantIds));
+        }
+        
+        Set<Long> favorited = new HashSet<>(favoriteRepository.findFavoritedRestaurantIds(userId, restaurantIds));
+        return ResponseEntity.ok(restaurantIds.stream()
+                .filter(favorited::contains)
+                .collect(Collectors.toList()));
+    }
+    
+    // One INSERT IGNORE against the unique (user_id, restaurant_id) key; adding twice is a no-op
     @PostMapping
     public ResponseEntity<FavoriteDTO> addToFavorites(@RequestBody FavoriteRequest request) {
-        User user = userRepository.findById(request.getUserId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        Restaurant restaurant = restaurantRepository.findById(request.getRestaurantId())
-                .orElseThrow(() -> new RuntimeException("Restaurant not found"));
-        
-        // Check if already favorited
-        if (favoriteRepository.existsByUserAndRestaurant(user, restaurant)) {
-            throw new RuntimeException("Restaurant already in favorites");
-        }
+        favoriteRepository.insertIfMissing(request.getUserId(), request.getRestaurantId(), LocalDateTime.now());
         
-        Favorite favorite = new Favorite(user, restaurant);
-        Favorite savedFavorite = favoriteRepository.save(favorite);
-        return ResponseEntity.ok(convertToDTO(savedFavorite));
+        FavoriteDTO favorite = favoriteRepository.findDTOByUserIdAndRestaurantId(
+                        request.getUserId(), request.getRestaurantId())
+                .orElseThrow(() -> new RuntimeException("User or restaurant not found"));
+        favoritesIndex.add(favorite.getUserId(), favorite.getRestaurantId());
+        return ResponseEntity.ok(favorite);
     }
     
     @DeleteMapping("/user/{userId}/restaurant/{restaurantId}")
     public ResponseEntity<Void> removeFromFavorites(@PathVariable Long userId, @PathVariable Long restaurantId) {
-        try {
-            System.out.println("Attempting to remove favorite for user: " + userId + ", restaurant: " + restaurantId);
-            
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            Restaurant restaurant = restaurantRepository.findById(restaurantId)
-                    .orElseThrow(() -> new RuntimeException("Restaurant not found"));
-            
-            System.out.println("Found user: " + user.getEmail() + ", restaurant: " + restaurant.getName());
-            
-            // Find the favorite first
-            Optional<Favorite> favorite = favoriteRepository.findByUserAndRestaurant(user, restaurant);
-            if (favorite.isPresent()) {
-                System.out.println("Found favorite with ID: " + favorite.get().getId());
-                favoriteRepository.delete(favorite.get());
-                System.out.println("Successfully deleted favorite");
-                return ResponseEntity.ok().build();
-            } else {
-                System.out.println("No favorite found for this user-restaurant combination");
-                return ResponseEntity.notFound().build();
-            }
-        } catch (Exception e) {
-            System.err.println("Error removing favorite: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().build();
+        if (favoriteRepository.deleteByUserIdAndRestaurantId(userId, restaurantId) == 0) {
+            return ResponseEntity.notFound().build();
         }
+        favoritesIndex.remove(userId, restaurantId);
+        return ResponseEntity.ok().build();
     }
     
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteFavorite(@PathVariable Long id) {
-        favoriteRepository.deleteById(id);
+        favoriteRepository.findById(id).ifPresent(favorite -> {
+            favoriteRepository.delete(favorite);
+            favoritesIndex.remove(favorite.getUser().getId(), favorite.getRestaurant().getId());
+        });
         return ResponseEntity.ok().build();
     }
     
-    private FavoriteDTO convertToDTO(Favorite favorite) {
-        FavoriteDTO dto = new FavoriteDTO();
-        dto.setId(favorite.getId());
-        dto.setUserId(favorite.getUser().getId());
-        dto.setRestaurantId(favorite.getRestaurant().getId());
-        dto.setRestaurantName(favorite.getRestaurant().getName());
-        dto.setRestaurantCity(favorite.getRestaurant().getCity());
-        dto.setRestaurantCuisine(favorite.getRestaurant().getCuisine());
-        dto.setRestaurantImageUrl(favorite.getRestaurant().getImageUrl());
-        dto.setCreatedAt(favorite.getCreatedAt());
-        return dto;
-    }
-    
     // Inner class for request body
     public static class FavoriteRequest {
         private Long userId;
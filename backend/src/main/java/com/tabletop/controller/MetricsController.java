@@ -0,0 +1,49 @@
+package com.tabletop.controller;
+
+import com.tabletop.service.CatalogResponseCache;
+import com.tabletop.service.ExternalRestaurantApiService;
+import com.tabletop.service.PartnerCircuitBreaker;
+import com.tabletop.service.SecondLevelCacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metrics")
+@CrossOrigin(origins = "*")
+public class MetricsController {
+    
+    @Autowired
+    private ExternalRestaurantApiService externalRestaurantApiService;
+    
+    @Autowired
+    private PartnerCircuitBreaker partnerCircuitBreaker;
+    
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+    
+    @Autowired
+    private SecondLevelCacheStats secondLevelCacheStats;
+    
+    @GetMapping("/partner-pool")
+    public ResponseEntity<Map<String, Object>> getPartnerPoolStats() {
+        return ResponseEntity.ok(externalRestaurantApiService.getConnectionPoolStats());
+    }
+    
+    @GetMapping("/partner-circuits")
+    public ResponseEntity<Map<Long, Map<String, Object>>> getPartnerCircuitStates() {
+        return ResponseEntity.ok(partnerCircuitBreaker.getCircuitStates());
+    }
+    
+    @GetMapping("/response-cache")
+    public ResponseEntity<Map<String, Object>> getResponseCacheStats() {
+        return ResponseEntity.ok(catalogResponseCache.getStats());
+    }
+    
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getSecondLevelCacheStats() {
+        return ResponseEntity.ok(secondLevelCacheStats.getStats());
+    }
+}
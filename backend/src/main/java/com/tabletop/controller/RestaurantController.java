@@ -1,11 +1,17 @@
 package com.tabletop.controller;
 
+import com.tabletop.dto.FacetedRestaurantsDTO;
 import com.tabletop.dto.RestaurantDTO;
 import com.tabletop.entity.Restaurant;
+import com.tabletop.service.CatalogResponseCache;
+import com.tabletop.service.CatalogVersion;
+import com.tabletop.service.RestaurantLeaderboards;
 import com.tabletop.service.RestaurantService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -18,38 +24,96 @@ public class RestaurantController {
     @Autowired
     private RestaurantService restaurantService;
     
+    @Autowired
+    private CatalogVersion catalogVersion;
+    
+    @Autowired
+    private CatalogResponseCache responseCache;
+    
+    // List endpoints are keyset-paginated; follow the X-Next-Cursor header for the next page
     @GetMapping
-    public ResponseEntity<List<RestaurantDTO>> getAllRestaurants(
+    public ResponseEntity<byte[]> getAllRestaurants(
             @RequestParam(required = false) String city,
             @RequestParam(required = false) String cuisine,
-            @RequestParam(required = false) BigDecimal minRating) {
+            @RequestParam(required = false) BigDecimal minRating,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
         
-        // If any filter parameters are provided, use search functionality
-        if (city != null || cuisine != null || minRating != null) {
-            List<RestaurantDTO> restaurants = restaurantService.searchRestaurants(city, cuisine, minRating);
-            return ResponseEntity.ok(restaurants);
+        if (isNotModified(request)) {
+            return null;
         }
         
-        // Otherwise, return all restaurants
-        List<RestaurantDTO> restaurants = restaurantService.getAllRestaurants();
-        return ResponseEntity.ok(restaurants);
+        int pageSize = CursorPagination.pageSize(limit);
+        long afterId = CursorPagination.afterId(cursor);
+        String key = CatalogResponseCache.key("restaurants", "city", city, "cuisine", cuisine,
+                "minRating", minRating, "afterId", afterId, "limit", pageSize);
+        
+        return responseCache.respond(key, acceptsGzip(request), () -> {
+            // If any filter parameters are provided, use search functionality
+            if (city != null || cuisine != null || minRating != null) {
+                List<RestaurantDTO> restaurants = restaurantService.searchRestaurants(
+                        city, cuisine, minRating, afterId, pageSize + 1);
+                return CursorPagination.respond(restaurants, pageSize, RestaurantDTO::getId);
+            }
+            
+            // Otherwise, return all restaurants
+            List<RestaurantDTO> restaurants = restaurantService.getAllRestaurants(afterId, pageSize + 1);
+            return CursorPagination.respond(restaurants, pageSize, RestaurantDTO::getId);
+        });
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<RestaurantDTO> getRestaurantById(@PathVariable Long id) {
-        RestaurantDTO restaurant = restaurantService.getRestaurantById(id);
-        return ResponseEntity.ok(restaurant);
+    public ResponseEntity<byte[]> getRestaurantById(@PathVariable Long id, WebRequest request) {
+        if (isNotModified(request)) {
+            return null;
+        }
+        
+        return responseCache.respond(CatalogResponseCache.key("restaurant", "id", id), acceptsGzip(request),
+                () -> ResponseEntity.ok(restaurantService.getRestaurantById(id)));
     }
     
     @GetMapping("/search")
     public ResponseEntity<List<RestaurantDTO>> searchRestaurants(
             @RequestParam(required = false) String city,
             @RequestParam(required = false) String cuisine,
-            @RequestParam(required = false) BigDecimal minRating) {
+            @RequestParam(required = false) BigDecimal minRating,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
         
+        if (isNotModified(request)) {
+            return null;
+        }
+        
+        int pageSize = CursorPagination.pageSize(limit);
         List<RestaurantDTO> restaurants = restaurantService.searchRestaurants(
-                city, cuisine, minRating);
-        return ResponseEntity.ok(restaurants);
+                city, cuisine, minRating, CursorPagination.afterId(cursor), pageSize + 1);
+        return CursorPagination.respond(restaurants, pageSize, RestaurantDTO::getId);
+    }
+    
+    // Filtered page plus per-city, per-cuisine and per-rating counts for the filter chips
+    @GetMapping("/search/faceted")
+    public ResponseEntity<FacetedRestaurantsDTO> searchRestaurantsWithFacets(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String cuisine,
+            @RequestParam(required = false) BigDecimal minRating,
+            @RequestParam(required = false) Boolean isActive,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        
+        if (isNotModified(request)) {
+            return null;
+        }
+        
+        int pageSize = CursorPagination.pageSize(limit);
+        FacetedRestaurantsDTO result = restaurantService.searchRestaurantsWithFacets(
+                city, cuisine, minRating, isActive, CursorPagination.afterId(cursor), pageSize + 1);
+        ResponseEntity<List<RestaurantDTO>> page = 
+                CursorPagination.respond(result.getRestaurants(), pageSize, RestaurantDTO::getId);
+        result.setRestaurants(page.getBody());
+        return ResponseEntity.ok().headers(page.getHeaders()).body(result);
     }
     
     @GetMapping("/search/text")
@@ -58,28 +122,65 @@ public class RestaurantController {
         return ResponseEntity.ok(restaurants);
     }
     
+    // Nearest restaurants within radiusKm of the given point, closest first
+    @GetMapping("/nearby")
+    public ResponseEntity<List<RestaurantDTO>> findNearbyRestaurants(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cuisine,
+            @RequestParam(required = false) BigDecimal minRating) {
+        
+        List<RestaurantDTO> restaurants = restaurantService.findNearbyRestaurants(
+                lat, lng, radiusKm, Math.max(1, limit), cuisine, minRating);
+        return ResponseEntity.ok(restaurants);
+    }
+    
     @GetMapping("/top-rated")
-    public ResponseEntity<List<RestaurantDTO>> getTopRatedRestaurants() {
-        List<RestaurantDTO> restaurants = restaurantService.getTopRatedRestaurants();
+    public ResponseEntity<List<RestaurantDTO>> getTopRatedRestaurants(
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        List<RestaurantDTO> restaurants = restaurantService.getTopRatedRestaurants(Math.max(1, limit));
         return ResponseEntity.ok(restaurants);
     }
     
+    // window is one of 24h, 7d or 30d; counts confirmed bookings made within it
     @GetMapping("/most-booked")
-    public ResponseEntity<List<RestaurantDTO>> getMostBookedRestaurants() {
-        List<RestaurantDTO> restaurants = restaurantService.getMostBookedRestaurants();
+    public ResponseEntity<List<RestaurantDTO>> getMostBookedRestaurants(
+            @RequestParam(defaultValue = "30d") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        List<RestaurantDTO> restaurants = restaurantService.getMostBookedRestaurants(
+                RestaurantLeaderboards.Window.fromCode(window), Math.max(1, limit));
         return ResponseEntity.ok(restaurants);
     }
     
     // Public API endpoint for external consumers
     @GetMapping("/public")
-    public ResponseEntity<List<RestaurantDTO>> getPublicRestaurants(
+    public ResponseEntity<byte[]> getPublicRestaurants(
             @RequestParam(required = false) String city,
             @RequestParam(required = false) String cuisine,
             @RequestParam(required = false) BigDecimal minRating,
-            @RequestParam(required = false) Boolean isActive) {
+            @RequestParam(required = false) Boolean isActive,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
         
-        List<RestaurantDTO> restaurants = restaurantService.getPublicRestaurants(city, cuisine, minRating, isActive);
-        return ResponseEntity.ok(restaurants);
+        if (isNotModified(request)) {
+            return null;
+        }
+        
+        int pageSize = CursorPagination.pageSize(limit);
+        long afterId = CursorPagination.afterId(cursor);
+        String key = CatalogResponseCache.key("restaurants/public", "city", city, "cuisine", cuisine,
+                "minRating", minRating, "isActive", isActive, "afterId", afterId, "limit", pageSize);
+        
+        return responseCache.respond(key, acceptsGzip(request), () -> {
+            List<RestaurantDTO> restaurants = restaurantService.getPublicRestaurants(
+                    city, cuisine, minRating, isActive, afterId, pageSize + 1);
+            return CursorPagination.respond(restaurants, pageSize, RestaurantDTO::getId);
+        });
     }
     
     @PostMapping
@@ -100,4 +201,15 @@ public class RestaurantController {
         restaurantService.deleteRestaurant(id);
         return ResponseEntity.ok().build();
     }
+    
+    // Catalog responses carry the catalog version as their ETag; a matching If-None-Match
+    // or If-Modified-Since ends the request with 304 before any data is loaded
+    private boolean isNotModified(WebRequest request) {
+        return request.checkNotModified(catalogVersion.getETag(), catalogVersion.getLastModified());
+    }
+    
+    private boolean acceptsGzip(WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
 }
@@ -1,5 +1,6 @@
 package com.tabletop.controller;
 
+import com.tabletop.dto.RatingSummaryDTO;
 import com.tabletop.dto.ReviewDTO;
 import com.tabletop.entity.Review;
 import com.tabletop.entity.Restaurant;
@@ -7,12 +8,19 @@ import com.tabletop.entity.User;
 import com.tabletop.repository.ReviewRepository;
 import com.tabletop.repository.RestaurantRepository;
 import com.tabletop.repository.UserRepository;
+import com.tabletop.service.RatingHistogramIndex;
+import com.tabletop.service.RestaurantStatsService;
+import com.tabletop.service.ReviewService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/reviews")
@@ -28,40 +36,87 @@ public class ReviewController {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private RestaurantStatsService restaurantStatsService;
+    
+    @Autowired
+    private RatingHistogramIndex ratingHistograms;
+    
+    @Autowired
+    private ReviewService reviewService;
+    
+    // List endpoints are keyset-paginated newest first; follow the X-Next-Cursor header for the next page
     @GetMapping
-    public ResponseEntity<List<ReviewDTO>> getAllReviews() {
-        List<ReviewDTO> reviews = reviewRepository.findAll()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(reviews);
+    public ResponseEntity<List<ReviewDTO>> getAllReviews(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        
+        int pageSize = CursorPagination.pageSize(limit);
+        List<ReviewDTO> reviews = reviewRepository.findDTOsBefore(
+                CursorPagination.beforeId(cursor), Limit.of(pageSize + 1));
+        return CursorPagination.respond(reviews, pageSize, ReviewDTO::getId);
     }
     
     @GetMapping("/restaurant/{restaurantId}")
-    public ResponseEntity<List<ReviewDTO>> getReviewsByRestaurant(@PathVariable Long restaurantId) {
-        Restaurant restaurant = restaurantRepository.findById(restaurantId)
+    public ResponseEntity<List<ReviewDTO>> getReviewsByRestaurant(
+            @PathVariable Long restaurantId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        
+        if (!restaurantRepository.existsById(restaurantId)) {
+            throw new RuntimeException("Restaurant not found");
+        }
+        
+        int pageSize = CursorPagination.pageSize(limit);
+        List<ReviewDTO> reviews = reviewRepository.findDTOsByRestaurantIdBefore(
+                restaurantId, CursorPagination.beforeId(cursor), Limit.of(pageSize + 1));
+        return CursorPagination.respond(reviews, pageSize, ReviewDTO::getId);
+    }
+    
+    // Half-star rating distribution and live average, served from the in-memory histogram
+    @GetMapping("/restaurant/{restaurantId}/summary")
+    public ResponseEntity<RatingSummaryDTO> getRatingSummary(@PathVariable Long restaurantId) {
+        // findById rather than existsById, so the check is answered by the second-level cache
+        restaurantRepository.findById(restaurantId)
                 .orElseThrow(() -> new RuntimeException("Restaurant not found"));
         
-        List<ReviewDTO> reviews = reviewRepository.findByRestaurant(restaurant)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(reviews);
+        RatingHistogramIndex.Summary summary = ratingHistograms.getSummary(restaurantId);
+        RatingSummaryDTO dto = new RatingSummaryDTO();
+        dto.setRestaurantId(restaurantId);
+        dto.setReviewCount(summary.getReviewCount());
+        dto.setAverageRating(summary.getAverageRating());
+        dto.setHistogram(summary.getHistogram());
+        return ResponseEntity.ok(dto);
     }
     
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<ReviewDTO>> getReviewsByUser(@PathVariable Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<List<ReviewDTO>> getReviewsByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
         
-        List<ReviewDTO> reviews = reviewRepository.findByUser(user)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(reviews);
+        int pageSize = CursorPagination.pageSize(limit);
+        List<ReviewDTO> reviews = reviewRepository.findDTOsByUserIdBefore(
+                userId, CursorPagination.beforeId(cursor), Limit.of(pageSize + 1));
+        return CursorPagination.respond(reviews, pageSize, ReviewDTO::getId);
     }
     
+    // Full export as newline-delimited JSON, streamed without loading every review at once
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportReviews() {
+        StreamingResponseBody body = reviewService::exportReviews;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+    
+    // Review writes and the restaurant statistics they change commit together
     @PostMapping
+    @Transactional
     public ResponseEntity<ReviewDTO> createReview(@RequestBody ReviewDTO reviewDTO) {
         User user = userRepository.findById(reviewDTO.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -76,36 +131,33 @@ public class ReviewController {
         review.setReviewText(reviewDTO.getReviewText());
         
         Review savedReview = reviewRepository.save(review);
-        return ResponseEntity.ok(convertToDTO(savedReview));
+        restaurantStatsService.onReviewAdded(restaurant.getId(), savedReview.getRating());
+        return ResponseEntity.ok(reviewService.convertToDTO(savedReview));
     }
     
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<ReviewDTO> updateReview(@PathVariable Long id, @RequestBody ReviewDTO reviewDTO) {
         Review review = reviewRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Review not found"));
         
+        BigDecimal previousRating = review.getRating();
         review.setRating(reviewDTO.getRating());
         review.setReviewText(reviewDTO.getReviewText());
         
         Review updatedReview = reviewRepository.save(review);
-        return ResponseEntity.ok(convertToDTO(updatedReview));
+        restaurantStatsService.onReviewChanged(
+                updatedReview.getRestaurant().getId(), previousRating, updatedReview.getRating());
+        return ResponseEntity.ok(reviewService.convertToDTO(updatedReview));
     }
     
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<Void> deleteReview(@PathVariable Long id) {
-        reviewRepository.deleteById(id);
+        reviewRepository.findById(id).ifPresent(review -> {
+            reviewRepository.delete(review);
+            restaurantStatsService.onReviewRemoved(review.getRestaurant().getId(), review.getRating());
+        });
         return ResponseEntity.ok().build();
     }
-    
-    private ReviewDTO convertToDTO(Review review) {
-        ReviewDTO dto = new ReviewDTO();
-        dto.setId(review.getId());
-        dto.setUserId(review.getUser().getId());
-        dto.setRestaurantId(review.getRestaurant().getId());
-        dto.setUserName(review.getUser().getFirstName() + " " + review.getUser().getLastName());
-        dto.setRating(review.getRating());
-        dto.setReviewText(review.getReviewText());
-        dto.setCreatedAt(review.getCreatedAt());
-        return dto;
-    }
 }
@@ -0,0 +1,37 @@
+package com.tabletop.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public class AvailabilityGridDTO {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Integer slotMinutes;
+    private Integer numberOfPeople;
+    private Integer slotCount;
+    // Run-length encoded availability per restaurant, alternating runs starting with available slots
+    private Map<Long, List<Integer>> availability;
+    
+    // Constructors
+    public AvailabilityGridDTO() {}
+    
+    // Getters and Setters
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(LocalDateTime from) { this.from = from; }
+    
+    public LocalDateTime getTo() { return to; }
+    public void setTo(LocalDateTime to) { this.to = to; }
+    
+    public Integer getSlotMinutes() { return slotMinutes; }
+    public void setSlotMinutes(Integer slotMinutes) { this.slotMinutes = slotMinutes; }
+    
+    public Integer getNumberOfPeople() { return numberOfPeople; }
+    public void setNumberOfPeople(Integer numberOfPeople) { this.numberOfPeople = numberOfPeople; }
+    
+    public Integer getSlotCount() { return slotCount; }
+    public void setSlotCount(Integer slotCount) { this.slotCount = slotCount; }
+    
+    public Map<Long, List<Integer>> getAvailability() { return availability; }
+    public void setAvailability(Map<Long, List<Integer>> availability) { this.availability = availability; }
+}
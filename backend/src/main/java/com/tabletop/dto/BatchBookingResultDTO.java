@@ -0,0 +1,31 @@
+package com.tabletop.dto;
+
+public class BatchBookingResultDTO {
+    private Integer index;
+    private Boolean success;
+    private String message;
+    private BookingDTO booking;
+    
+    // Constructors
+    public BatchBookingResultDTO() {}
+    
+    public BatchBookingResultDTO(Integer index, Boolean success, String message, BookingDTO booking) {
+        this.index = index;
+        this.success = success;
+        this.message = message;
+        this.booking = booking;
+    }
+    
+    // Getters and Setters
+    public Integer getIndex() { return index; }
+    public void setIndex(Integer index) { this.index = index; }
+    
+    public Boolean getSuccess() { return success; }
+    public void setSuccess(Boolean success) { this.success = success; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    
+    public BookingDTO getBooking() { return booking; }
+    public void setBooking(BookingDTO booking) { this.booking = booking; }
+}
@@ -1,5 +1,7 @@
 package com.tabletop.dto;
 
+import com.tabletop.entity.Booking;
+
 import java.time.LocalDateTime;
 
 public class BookingDTO {
@@ -16,6 +18,21 @@ public class BookingDTO {
     // Constructors
     public BookingDTO() {}
     
+    // Used by constructor-expression queries in BookingRepository
+    public BookingDTO(Long id, Long userId, Long restaurantId, String restaurantName,
+                      LocalDateTime bookingDateTime, Integer numberOfPeople, String specialRequests,
+                      Booking.BookingStatus status, LocalDateTime createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.restaurantId = restaurantId;
+        this.restaurantName = restaurantName;
+        this.bookingDateTime = bookingDateTime;
+        this.numberOfPeople = numberOfPeople;
+        this.specialRequests = specialRequests;
+        this.status = status == null ? null : status.toString();
+        this.createdAt = createdAt;
+    }
+    
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
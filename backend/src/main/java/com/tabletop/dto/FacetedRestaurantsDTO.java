@@ -0,0 +1,31 @@
+package com.tabletop.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class FacetedRestaurantsDTO {
+    private List<RestaurantDTO> restaurants;
+    private Long totalMatches;
+    private Map<String, Long> cityCounts;
+    private Map<String, Long> cuisineCounts;
+    private Map<String, Long> ratingCounts;
+    
+    // Constructors
+    public FacetedRestaurantsDTO() {}
+    
+    // Getters and Setters
+    public List<RestaurantDTO> getRestaurants() { return restaurants; }
+    public void setRestaurants(List<RestaurantDTO> restaurants) { this.restaurants = restaurants; }
+    
+    public Long getTotalMatches() { return totalMatches; }
+    public void setTotalMatches(Long totalMatches) { this.totalMatches = totalMatches; }
+    
+    public Map<String, Long> getCityCounts() { return cityCounts; }
+    public void setCityCounts(Map<String, Long> cityCounts) { this.cityCounts = cityCounts; }
+    
+    public Map<String, Long> getCuisineCounts() { return cuisineCounts; }
+    public void setCuisineCounts(Map<String, Long> cuisineCounts) { this.cuisineCounts = cuisineCounts; }
+    
+    public Map<String, Long> getRatingCounts() { return ratingCounts; }
+    public void setRatingCounts(Map<String, Long> ratingCounts) { this.ratingCounts = ratingCounts; }
+}
@@ -0,0 +1,27 @@
+package com.tabletop.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public class RatingSummaryDTO {
+    private Long restaurantId;
+    private Long reviewCount;
+    private BigDecimal averageRating;
+    private Map<String, Long> histogram;
+    
+    // Constructors
+    public RatingSummaryDTO() {}
+    
+    // Getters and Setters
+    public Long getRestaurantId() { return restaurantId; }
+    public void setRestaurantId(Long restaurantId) { this.restaurantId = restaurantId; }
+    
+    public Long getReviewCount() { return reviewCount; }
+    public void setReviewCount(Long reviewCount) { this.reviewCount = reviewCount; }
+    
+    public BigDecimal getAverageRating() { return averageRating; }
+    public void setAverageRating(BigDecimal averageRating) { this.averageRating = averageRating; }
+    
+    public Map<String, Long> getHistogram() { return histogram; }
+    public void setHistogram(Map<String, Long> histogram) { this.histogram = histogram; }
+}
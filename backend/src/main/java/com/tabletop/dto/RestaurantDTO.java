@@ -16,9 +16,15 @@ public class RestaurantDTO {
     private String imageUrl;
     private String bookingApiUrl;
     private String secretKey;
+    private Integer capacity;
+    private Double latitude;
+    private Double longitude;
+    private Double distanceKm;
     private Boolean isActive;
+    private Boolean temporarilyUnbookable;
     private Long totalBookings;
     private Long totalReviews;
+    private BigDecimal averageRating;
     private List<ReviewDTO> recentReviews;
     
     // Constructors
@@ -61,15 +67,33 @@ public class RestaurantDTO {
     public String getSecretKey() { return secretKey; }
     public void setSecretKey(String secretKey) { this.secretKey = secretKey; }
     
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+    
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    
+    public Double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(Double distanceKm) { this.distanceKm = distanceKm; }
+    
     public Boolean getIsActive() { return isActive; }
     public void setIsActive(Boolean isActive) { this.isActive = isActive; }
     
+    public Boolean getTemporarilyUnbookable() { return temporarilyUnbookable; }
+    public void setTemporarilyUnbookable(Boolean temporarilyUnbookable) { this.temporarilyUnbookable = temporarilyUnbookable; }
+    
     public Long getTotalBookings() { return totalBookings; }
     public void setTotalBookings(Long totalBookings) { this.totalBookings = totalBookings; }
     
     public Long getTotalReviews() { return totalReviews; }
     public void setTotalReviews(Long totalReviews) { this.totalReviews = totalReviews; }
     
+    public BigDecimal getAverageRating() { return averageRating; }
+    public void setAverageRating(BigDecimal averageRating) { this.averageRating = averageRating; }
+    
     public List<ReviewDTO> getRecentReviews() { return recentReviews; }
     public void setRecentReviews(List<ReviewDTO> recentReviews) { this.recentReviews = recentReviews; }
 }
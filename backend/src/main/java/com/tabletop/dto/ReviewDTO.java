@@ -15,6 +15,18 @@ public class ReviewDTO {
     // Constructors
     public ReviewDTO() {}
     
+    // Used by constructor-expression queries in ReviewRepository
+    public ReviewDTO(Long id, Long userId, Long restaurantId, String userName, BigDecimal rating,
+                     String reviewText, LocalDateTime createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.restaurantId = restaurantId;
+        this.userName = userName;
+        this.rating = rating;
+        this.reviewText = reviewText;
+        this.createdAt = createdAt;
+    }
+    
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "favorites")
+@Table(name = "favorites", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_favorites_user_restaurant", columnNames = {"user_id", "restaurant_id"})
+})
 public class Favorite {
     
     @Id
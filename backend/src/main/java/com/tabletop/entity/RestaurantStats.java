@@ -0,0 +1,55 @@
+package com.tabletop.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "restaurant_stats")
+public class RestaurantStats {
+    
+    @Id
+    @Column(name = "restaurant_id")
+    private Long restaurantId;
+    
+    @Column(name = "confirmed_bookings", nullable = false)
+    private Long confirmedBookings = 0L;
+    
+    @Column(name = "review_count", nullable = false)
+    private Long reviewCount = 0L;
+    
+    @Column(name = "rating_sum", nullable = false, precision = 12, scale = 2)
+    private BigDecimal ratingSum = BigDecimal.ZERO;
+    
+    @Column(name = "average_rating", nullable = false, precision = 3, scale = 2)
+    private BigDecimal averageRating = BigDecimal.ZERO;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt = LocalDateTime.now();
+    
+    // Constructors
+    public RestaurantStats() {}
+    
+    public RestaurantStats(Long restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+    
+    // Getters and Setters
+    public Long getRestaurantId() { return restaurantId; }
+    public void setRestaurantId(Long restaurantId) { this.restaurantId = restaurantId; }
+    
+    public Long getConfirmedBookings() { return confirmedBookings; }
+    public void setConfirmedBookings(Long confirmedBookings) { this.confirmedBookings = confirmedBookings; }
+    
+    public Long getReviewCount() { return reviewCount; }
+    public void setReviewCount(Long reviewCount) { this.reviewCount = reviewCount; }
+    
+    public BigDecimal getRatingSum() { return ratingSum; }
+    public void setRatingSum(BigDecimal ratingSum) { this.ratingSum = ratingSum; }
+    
+    public BigDecimal getAverageRating() { return averageRating; }
+    public void setAverageRating(BigDecimal averageRating) { this.averageRating = averageRating; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,66 @@
+package com.tabletop.repository;
+
+import com.tabletop.entity.Booking;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts many bookings in a single JDBC batch. Bookings use IDENTITY keys, which stop
+ * Hibernate from batching inserts, so batches go through JDBC and read the generated
+ * keys back from the driver.
+ */
+@Repository
+public class BookingBatchRepository {
+    
+    private static final String INSERT_SQL = 
+        "INSERT INTO bookings (user_id, restaurant_id, booking_date_time, number_of_people, " +
+        "special_requests, status, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Transactional
+    public void insertAll(List<Booking> bookings) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Booking booking = bookings.get(i);
+                    ps.setLong(1, booking.getUser().getId());
+                    ps.setLong(2, booking.getRestaurant().getId());
+                    ps.setTimestamp(3, Timestamp.valueOf(booking.getBookingDateTime()));
+                    ps.setInt(4, booking.getNumberOfPeople());
+                    ps.setString(5, booking.getSpecialRequests());
+                    ps.setString(6, booking.getStatus().name());
+                    ps.setTimestamp(7, Timestamp.valueOf(booking.getCreatedAt()));
+                }
+                
+                @Override
+                public int getBatchSize() {
+                    return bookings.size();
+                }
+            },
+            keyHolder
+        );
+        
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < bookings.size() && i < keys.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            bookings.get(i).setId(id.longValue());
+        }
+    }
+}
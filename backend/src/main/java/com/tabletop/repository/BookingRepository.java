@@ -1,15 +1,22 @@
 package com.tabletop.repository;
 
+import com.tabletop.dto.BookingDTO;
 import com.tabletop.entity.Booking;
 import com.tabletop.entity.User;
 import com.tabletop.entity.Restaurant;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -20,6 +27,38 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     
     List<Booking> findByUserAndStatus(User user, Booking.BookingStatus status);
     
+    // Newest-first keyset pages as DTO rows in one statement, without loading users or restaurants
+    @Query("SELECT new com.tabletop.dto.BookingDTO(b.id, b.user.id, r.id, r.name, b.bookingDateTime, " +
+           "b.numberOfPeople, b.specialRequests, b.status, b.createdAt) FROM Booking b JOIN b.restaurant r " +
+           "WHERE b.id < :beforeId ORDER BY b.id DESC")
+    List<BookingDTO> findDTOsBefore(@Param("beforeId") Long beforeId, Limit limit);
+    
+    @Query("SELECT new com.tabletop.dto.BookingDTO(b.id, b.user.id, r.id, r.name, b.bookingDateTime, " +
+           "b.numberOfPeople, b.specialRequests, b.status, b.createdAt) FROM Booking b JOIN b.restaurant r " +
+           "WHERE b.user.id = :userId AND b.id < :beforeId ORDER BY b.id DESC")
+    List<BookingDTO> findDTOsByUserIdBefore(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Limit limit);
+    
+    @Query("SELECT new com.tabletop.dto.BookingDTO(b.id, b.user.id, r.id, r.name, b.bookingDateTime, " +
+           "b.numberOfPeople, b.specialRequests, b.status, b.createdAt) FROM Booking b JOIN b.restaurant r " +
+           "WHERE r.id = :restaurantId AND b.id < :beforeId ORDER BY b.id DESC")
+    List<BookingDTO> findDTOsByRestaurantIdBefore(@Param("restaurantId") Long restaurantId,
+                                                 @Param("beforeId") Long beforeId, Limit limit);
+    
+    // Streams rows from a server-side cursor for exports; must be consumed inside a transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b JOIN FETCH b.restaurant ORDER BY b.id")
+    Stream<Booking> streamAllForExport();
+    
+    // Compare-and-set on the status: returns 0 when the booking has moved on from the expected one
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :newStatus WHERE b.id = :bookingId AND b.status = :expectedStatus")
+    int updateStatusIfCurrent(@Param("bookingId") Long bookingId,
+                              @Param("expectedStatus") Booking.BookingStatus expectedStatus,
+                              @Param("newStatus") Booking.BookingStatus newStatus);
+    
     @Query("SELECT b FROM Booking b WHERE b.restaurant = :restaurant AND " +
            "b.bookingDateTime BETWEEN :startTime AND :endTime AND " +
            "b.status IN ('PENDING', 'CONFIRMED')")
@@ -29,7 +68,28 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
         @Param("endTime") LocalDateTime endTime
     );
     
+    @Query("SELECT COALESCE(SUM(b.numberOfPeople), 0) FROM Booking b WHERE b.restaurant = :restaurant AND " +
+           "b.bookingDateTime > :startTime AND b.bookingDateTime < :endTime AND " +
+           "b.status IN ('PENDING', 'CONFIRMED')")
+    Long sumCoversInWindow(
+        @Param("restaurant") Restaurant restaurant,
+        @Param("startTime") LocalDateTime startTime,
+        @Param("endTime") LocalDateTime endTime
+    );
+    
+    @Query("SELECT b.restaurant.id, b.bookingDateTime, b.numberOfPeople FROM Booking b WHERE " +
+           "b.bookingDateTime >= :from AND b.status IN ('PENDING', 'CONFIRMED')")
+    List<Object[]> findActiveBookingSlotsFrom(@Param("from") LocalDateTime from);
+    
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.restaurant = :restaurant AND " +
            "b.status = 'CONFIRMED'")
     Long countConfirmedBookingsByRestaurant(@Param("restaurant") Restaurant restaurant);
+    
+    @Query("SELECT b.restaurant.id, b.createdAt FROM Booking b WHERE b.status = 'CONFIRMED' AND " +
+           "b.createdAt >= :from")
+    List<Object[]> findConfirmedBookingTimesFrom(@Param("from") LocalDateTime from);
+    
+    @Query("SELECT b.restaurant.id, COUNT(b) FROM Booking b WHERE b.status = 'CONFIRMED' " +
+           "GROUP BY b.restaurant.id")
+    List<Object[]> countConfirmedBookingsGroupedByRestaurant();
 }
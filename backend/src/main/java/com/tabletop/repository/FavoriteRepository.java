@@ -1,13 +1,22 @@
 package com.tabletop.repository;
 
+import com.tabletop.dto.FavoriteDTO;
 import com.tabletop.entity.Favorite;
 import com.tabletop.entity.User;
 import com.tabletop.entity.Restaurant;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,11 +31,43 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
     
     boolean existsByUserAndRestaurant(User user, Restaurant restaurant);
     
-    void deleteByUserAndRestaurant(User user, Restaurant restaurant);
-    
     @Query("SELECT f FROM Favorite f WHERE f.user.id = :userId")
     List<Favorite> findByUserId(@Param("userId") Long userId);
     
+    // Newest-first keyset page of a user's favorites as DTO rows, joining only the restaurant columns shown
+    @Query("SELECT new com.tabletop.dto.FavoriteDTO(f.id, f.user.id, r.id, r.name, r.city, r.cuisine, " +
+           "r.imageUrl, f.createdAt) FROM Favorite f JOIN f.restaurant r " +
+           "WHERE f.user.id = :userId AND f.id < :beforeId ORDER BY f.id DESC")
+    List<FavoriteDTO> findDTOsByUserIdBefore(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Limit limit);
+    
+    // Relies on the unique (user_id, restaurant_id) key: returns 0 when the pair already exists.
+    // IGNORE also turns a missing user or restaurant into a no-op rather than an error.
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "favorites"))
+    @Query(value = "INSERT IGNORE INTO favorites (user_id, restaurant_id, created_at) " +
+                   "VALUES (:userId, :restaurantId, :createdAt)", nativeQuery = true)
+    int insertIfMissing(@Param("userId") Long userId, @Param("restaurantId") Long restaurantId,
+                        @Param("createdAt") LocalDateTime createdAt);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Favorite f WHERE f.user.id = :userId AND f.restaurant.id = :restaurantId")
+    int deleteByUserIdAndRestaurantId(@Param("userId") Long userId, @Param("restaurantId") Long restaurantId);
+    
+    @Query("SELECT new com.tabletop.dto.FavoriteDTO(f.id, f.user.id, r.id, r.name, r.city, r.cuisine, " +
+           "r.imageUrl, f.createdAt) FROM Favorite f JOIN f.restaurant r " +
+           "WHERE f.user.id = :userId AND r.id = :restaurantId")
+    Optional<FavoriteDTO> findDTOByUserIdAndRestaurantId(@Param("userId") Long userId,
+                                                         @Param("restaurantId") Long restaurantId);
+    
+    @Query("SELECT f.user.id, f.restaurant.id FROM Favorite f")
+    List<Object[]> findAllUserAndRestaurantIds();
+    
+    @Query("SELECT f.restaurant.id FROM Favorite f WHERE f.user.id = :userId AND f.restaurant.id IN :restaurantIds")
+    List<Long> findFavoritedRestaurantIds(@Param("userId") Long userId,
+                                          @Param("restaurantIds") Collection<Long> restaurantIds);
+    
     @Query("SELECT f FROM Favorite f WHERE f.restaurant.id = :restaurantId")
     List<Favorite> findByRestaurantId(@Param("restaurantId") Long restaurantId);
     
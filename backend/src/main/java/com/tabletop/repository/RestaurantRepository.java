@@ -1,8 +1,12 @@
 package com.tabletop.repository;
 
 import com.tabletop.entity.Restaurant;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -21,28 +25,38 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     
     List<Restaurant> findByName(String name);
     
+    // Pages of the public restaurant list; cached per (afterId, limit) until a restaurant changes
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "query.restaurants.active")
+    })
+    List<Restaurant> findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    
+    @Query("SELECT r.id, r.capacity FROM Restaurant r")
+    List<Object[]> findAllCapacities();
+    
+    @Query("SELECT r.id, r.rating, r.isActive FROM Restaurant r")
+    List<Object[]> findAllRatingsAndStatus();
+    
     @Query("SELECT r FROM Restaurant r WHERE " +
            "(:city IS NULL OR LOWER(r.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
            "(:cuisine IS NULL OR LOWER(r.cuisine) LIKE LOWER(CONCAT('%', :cuisine, '%'))) AND " +
            "(:minRating IS NULL OR r.rating >= :minRating) AND " +
-           "r.isActive = true")
-    List<Restaurant> findRestaurantsWithFilters(
+           "r.isActive = true AND r.id > :afterId ORDER BY r.id")
+    List<Restaurant> findRestaurantsWithFiltersAfter(
         @Param("city") String city,
         @Param("cuisine") String cuisine,
-        @Param("minRating") java.math.BigDecimal minRating
+        @Param("minRating") java.math.BigDecimal minRating,
+        @Param("afterId") Long afterId,
+        Limit limit
     );
     
-    @Query("SELECT r FROM Restaurant r WHERE " +
+    @Query("SELECT r FROM Restaurant r WHERE r.isActive = true AND (" +
            "LOWER(r.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(r.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(r.cuisine) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<Restaurant> findBySearchTerm(@Param("searchTerm") String searchTerm);
-    
-    @Query("SELECT r FROM Restaurant r ORDER BY r.rating DESC")
-    List<Restaurant> findTopRatedRestaurants();
+           "LOWER(r.cuisine) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
+    List<Restaurant> findActiveBySearchTerm(@Param("searchTerm") String searchTerm);
     
-    @Query("SELECT r FROM Restaurant r WHERE r.id IN " +
-           "(SELECT b.restaurant.id FROM Booking b GROUP BY b.restaurant.id " +
-           "ORDER BY COUNT(b) DESC)")
-    List<Restaurant> findMostBookedRestaurants();
+    @Query("SELECT r FROM Restaurant r WHERE r.isActive = true ORDER BY r.rating DESC, r.id")
+    List<Restaurant> findTopRatedRestaurants(Limit limit);
 }
@@ -0,0 +1,57 @@
+package com.tabletop.repository;
+
+import com.tabletop.entity.RestaurantStats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface RestaurantStatsRepository extends JpaRepository<RestaurantStats, Long> {
+    
+    // Without a declared query space a native write evicts every second-level cache region
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "restaurant_stats"))
+    @Query(value = "INSERT IGNORE INTO restaurant_stats " +
+                   "(restaurant_id, confirmed_bookings, review_count, rating_sum, average_rating, updated_at) " +
+                   "VALUES (:restaurantId, 0, 0, 0, 0, NOW())", nativeQuery = true)
+    int insertIfMissing(@Param("restaurantId") Long restaurantId);
+    
+    @Modifying
+    @Query("UPDATE RestaurantStats s SET s.confirmedBookings = s.confirmedBookings + :delta, " +
+           "s.updatedAt = CURRENT_TIMESTAMP WHERE s.restaurantId = :restaurantId")
+    int adjustConfirmedBookings(@Param("restaurantId") Long restaurantId, @Param("delta") long delta);
+    
+    @Modifying
+    @Query("UPDATE RestaurantStats s SET s.reviewCount = s.reviewCount + :countDelta, " +
+           "s.ratingSum = s.ratingSum + :ratingDelta, s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.restaurantId = :restaurantId")
+    int adjustReviews(
+        @Param("restaurantId") Long restaurantId,
+        @Param("countDelta") long countDelta,
+        @Param("ratingDelta") BigDecimal ratingDelta
+    );
+    
+    // Recomputes the totals in the UPDATE itself, so relative updates queued on the row are never lost
+    @Modifying
+    @Query("UPDATE RestaurantStats s SET " +
+           "s.confirmedBookings = (SELECT COUNT(b) FROM Booking b " +
+           "WHERE b.restaurant.id = s.restaurantId AND b.status = 'CONFIRMED'), " +
+           "s.reviewCount = (SELECT COUNT(r) FROM Review r WHERE r.restaurant.id = s.restaurantId), " +
+           "s.ratingSum = (SELECT COALESCE(SUM(r.rating), 0) FROM Review r WHERE r.restaurant.id = s.restaurantId), " +
+           "s.updatedAt = CURRENT_TIMESTAMP WHERE s.restaurantId = :restaurantId")
+    int recompute(@Param("restaurantId") Long restaurantId);
+    
+    // Kept as a separate statement because MySQL applies SET assignments left to right
+    @Modifying
+    @Query("UPDATE RestaurantStats s SET s.averageRating = " +
+           "CASE WHEN s.reviewCount > 0 THEN s.ratingSum / s.reviewCount ELSE 0 END " +
+           "WHERE s.restaurantId = :restaurantId")
+    int refreshAverageRating(@Param("restaurantId") Long restaurantId);
+}
@@ -1,15 +1,21 @@
 package com.tabletop.repository;
 
+import com.tabletop.dto.ReviewDTO;
 import com.tabletop.entity.Review;
 import com.tabletop.entity.Restaurant;
 import com.tabletop.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
@@ -20,9 +26,37 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     
     Optional<Review> findByUserAndRestaurant(User user, Restaurant restaurant);
     
-    @Query("SELECT AVG(r.rating) FROM Review r WHERE r.restaurant = :restaurant")
-    Double getAverageRatingByRestaurant(@Param("restaurant") Restaurant restaurant);
+    // Newest-first keyset pages as DTO rows in one statement, joining only the reviewer's name
+    @Query("SELECT new com.tabletop.dto.ReviewDTO(r.id, u.id, r.restaurant.id, CONCAT(u.firstName, ' ', u.lastName), " +
+           "r.rating, r.reviewText, r.createdAt) FROM Review r JOIN r.user u " +
+           "WHERE r.id < :beforeId ORDER BY r.id DESC")
+    List<ReviewDTO> findDTOsBefore(@Param("beforeId") Long beforeId, Limit limit);
     
-    @Query("SELECT COUNT(r) FROM Review r WHERE r.restaurant = :restaurant")
-    Long countReviewsByRestaurant(@Param("restaurant") Restaurant restaurant);
+    @Query("SELECT new com.tabletop.dto.ReviewDTO(r.id, u.id, r.restaurant.id, CONCAT(u.firstName, ' ', u.lastName), " +
+           "r.rating, r.reviewText, r.createdAt) FROM Review r JOIN r.user u " +
+           "WHERE u.id = :userId AND r.id < :beforeId ORDER BY r.id DESC")
+    List<ReviewDTO> findDTOsByUserIdBefore(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Limit limit);
+    
+    @Query("SELECT new com.tabletop.dto.ReviewDTO(r.id, u.id, r.restaurant.id, CONCAT(u.firstName, ' ', u.lastName), " +
+           "r.rating, r.reviewText, r.createdAt) FROM Review r JOIN r.user u " +
+           "WHERE r.restaurant.id = :restaurantId AND r.id < :beforeId ORDER BY r.id DESC")
+    List<ReviewDTO> findDTOsByRestaurantIdBefore(@Param("restaurantId") Long restaurantId,
+                                                @Param("beforeId") Long beforeId, Limit limit);
+    
+    // Streams rows from a server-side cursor for exports; must be consumed inside a transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Review r JOIN FETCH r.user ORDER BY r.id")
+    Stream<Review> streamAllForExport();
+    
+    @Query("SELECT r.restaurant.id, COUNT(r), SUM(r.rating) FROM Review r GROUP BY r.restaurant.id")
+    List<Object[]> summarizeReviewsGroupedByRestaurant();
+    
+    @Query("SELECT r.restaurant.id, r.rating, COUNT(r) FROM Review r GROUP BY r.restaurant.id, r.rating")
+    List<Object[]> countReviewsGroupedByRestaurantAndRating();
+    
+    @Query("SELECT r.rating, COUNT(r) FROM Review r WHERE r.restaurant.id = :restaurantId GROUP BY r.rating")
+    List<Object[]> countReviewsByRatingForRestaurant(@Param("restaurantId") Long restaurantId);
 }
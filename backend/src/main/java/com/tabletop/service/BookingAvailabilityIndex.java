@@ -0,0 +1,385 @@
+package com.tabletop.service;
+
+import com.tabletop.entity.Booking;
+import com.tabletop.repository.BookingRepository;
+import com.tabletop.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory seat inventory of PENDING/CONFIRMED bookings. Each restaurant has a cover
+ * capacity and every slot tracks the covers already taken, so availability checks and
+ * reservations run without a database round trip. Reservations use compare-and-set on
+ * the per-slot counters, so concurrent bookings never oversell and never share a lock.
+ * <p>
+ * Until the index is built, bookings are checked against the database instead and claim
+ * their covers here until they are inserted. The rebuild waits for those claims to finish
+ * and blocks new ones, so no booking slips in between the snapshot and going live.
+ */
+@Component
+public class BookingAvailabilityIndex {
+
+    private static final Set<Booking.BookingStatus> ACTIVE_STATUSES =
+            EnumSet.of(Booking.BookingStatus.PENDING, Booking.BookingStatus.CONFIRMED);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private SlotLockStripes slotLocks;
+
+    @Value("${booking.inventory.default-capacity:40}")
+    private int defaultCapacity;
+
+    @Value("${booking.inventory.slot-minutes:30}")
+    private int slotMinutes;
+
+    @Value("${booking.inventory.seating-minutes:90}")
+    private int seatingMinutes;
+
+    private final Map<Long, RestaurantInventory> inventories = new ConcurrentHashMap<>();
+
+    private final Map<Long, Set<WarmupClaim>> warmupClaims = new ConcurrentHashMap<>();
+
+    // Warm-up bookings share the read side; the rebuild takes the write side
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            load();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private void load() {
+        inventories.clear();
+
+        for (Object[] restaurant : restaurantRepository.findAllCapacities()) {
+            registerRestaurant((Long) restaurant[0], (Integer) restaurant[1]);
+        }
+
+        // Bookings whose seating already ended can never overlap a new one
+        List<Object[]> activeSlots = bookingRepository.findActiveBookingSlotsFrom(
+                LocalDateTime.now().minusMinutes(seatingMinutes));
+        for (Object[] slot : activeSlots) {
+            RestaurantInventory inventory = inventories.get((Long) slot[0]);
+            if (inventory != null) {
+                inventory.forceAdd((LocalDateTime) slot[1], (Integer) slot[2]);
+            }
+        }
+
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Enters the warm-up booking path, returning false once the index is ready. While
+     * entered, the rebuild cannot start; callers must {@link #exitWarmup()} when done.
+     */
+    public boolean enterWarmup() {
+        if (ready) {
+            return false;
+        }
+        rebuildLock.readLock().lock();
+        if (ready) {
+            rebuildLock.readLock().unlock();
+            return false;
+        }
+        return true;
+    }
+
+    public void exitWarmup() {
+        rebuildLock.readLock().unlock();
+    }
+
+    /**
+     * Records covers taken by a warm-up booking that is not in the database yet. Call it
+     * between {@link #enterWarmup()} and {@link #exitWarmup()} with the slot stripes held;
+     * the claim keeps the rebuild waiting until it is closed, after the insert commits.
+     */
+    public WarmupClaim claimWarmupCovers(Long restaurantId, LocalDateTime bookingDateTime, int numberOfPeople) {
+        rebuildLock.readLock().lock();
+        WarmupClaim claim = new WarmupClaim(restaurantId, bookingDateTime, numberOfPeople);
+        warmupClaims.computeIfAbsent(restaurantId, id -> ConcurrentHashMap.newKeySet()).add(claim);
+        return claim;
+    }
+
+    /**
+     * Covers claimed by in-flight warm-up bookings whose seating overlaps this time, using
+     * the same window as the database check.
+     */
+    public int getClaimedWarmupCovers(Long restaurantId, LocalDateTime bookingDateTime) {
+        Set<WarmupClaim> claims = warmupClaims.get(restaurantId);
+        if (claims == null) {
+            return 0;
+        }
+
+        LocalDateTime from = bookingDateTime.minusMinutes(seatingMinutes);
+        LocalDateTime to = bookingDateTime.plusMinutes(seatingMinutes);
+        int claimed = 0;
+        for (WarmupClaim claim : claims) {
+            if (claim.bookingDateTime.isAfter(from) && claim.bookingDateTime.isBefore(to)) {
+                claimed += claim.numberOfPeople;
+            }
+        }
+        return claimed;
+    }
+
+    public boolean isKnownRestaurant(Long restaurantId) {
+        return inventories.containsKey(restaurantId);
+    }
+
+    public void registerRestaurant(Long restaurantId, Integer capacity) {
+        inventories.computeIfAbsent(restaurantId, id -> new RestaurantInventory())
+                .capacity = effectiveCapacity(capacity);
+    }
+
+    public int effectiveCapacity(Integer capacity) {
+        return capacity != null && capacity > 0 ? capacity : defaultCapacity;
+    }
+
+    public int getSeatingMinutes() {
+        return seatingMinutes;
+    }
+
+    public boolean isAvailable(Long restaurantId, LocalDateTime bookingDateTime, int numberOfPeople) {
+        RestaurantInventory inventory = inventories.get(restaurantId);
+        if (inventory == null) {
+            return false;
+        }
+
+        for (long slot = firstSlot(bookingDateTime); slot <= lastSlot(bookingDateTime); slot++) {
+            if (inventory.remaining(slot) < numberOfPeople) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getRemainingCovers(Long restaurantId, LocalDateTime bookingDateTime) {
+        RestaurantInventory inventory = inventories.get(restaurantId);
+        if (inventory == null) {
+            return 0;
+        }
+
+        int remaining = Integer.MAX_VALUE;
+        for (long slot = firstSlot(bookingDateTime); slot <= lastSlot(bookingDateTime); slot++) {
+            remaining = Math.min(remaining, inventory.remaining(slot));
+        }
+        return Math.max(0, remaining);
+    }
+
+    /**
+     * Run-length encodes availability for consecutive booking start times, alternating
+     * available and unavailable runs and always starting with an available run.
+     */
+    public List<Integer> encodeAvailability(Long restaurantId, LocalDateTime from, int slotCount,
+                                            int stepMinutes, int numberOfPeople) {
+        List<Integer> runs = new ArrayList<>();
+        RestaurantInventory inventory = inventories.get(restaurantId);
+        if (inventory == null) {
+            runs.add(0);
+            runs.add(slotCount);
+            return runs;
+        }
+
+        boolean currentlyAvailable = true;
+        int runLength = 0;
+        for (int i = 0; i < slotCount; i++) {
+            boolean available = isAvailable(restaurantId, from.plusMinutes((long) i * stepMinutes), numberOfPeople);
+            if (available != currentlyAvailable) {
+                runs.add(runLength);
+                currentlyAvailable = available;
+                runLength = 0;
+            }
+            runLength++;
+        }
+        runs.add(runLength);
+        return runs;
+    }
+
+    /**
+     * Locks the stripes of every slot a booking at this time would occupy.
+     */
+    public SlotLockStripes.Held lockSlots(Long restaurantId, LocalDateTime bookingDateTime) {
+        return slotLocks.lock(restaurantId, firstSlot(bookingDateTime), lastSlot(bookingDateTime));
+    }
+
+    /**
+     * Locks the stripes of every slot any of these bookings would occupy, all at once.
+     */
+    public SlotLockStripes.Held lockSlots(Collection<SlotLockStripes.SlotRange> ranges) {
+        return slotLocks.lock(ranges);
+    }
+
+    public SlotLockStripes.SlotRange slotRange(Long restaurantId, LocalDateTime bookingDateTime) {
+        return new SlotLockStripes.SlotRange(restaurantId, firstSlot(bookingDateTime), lastSlot(bookingDateTime));
+    }
+
+    /**
+     * Atomically takes covers from every slot the booking would occupy. Either all slots
+     * are reserved or none are. The slot stripes keep competing reservations from seeing
+     * each other's partial claims; the counters themselves stay compare-and-set so
+     * releases never need the lock.
+     */
+    public boolean tryReserve(Long restaurantId, LocalDateTime bookingDateTime, int numberOfPeople) {
+        RestaurantInventory inventory = inventories.get(restaurantId);
+        if (inventory == null) {
+            return false;
+        }
+
+        long first = firstSlot(bookingDateTime);
+        long last = lastSlot(bookingDateTime);
+        try (SlotLockStripes.Held held = slotLocks.lock(restaurantId, first, last)) {
+            for (long slot = first; slot <= last; slot++) {
+                if (!inventory.tryTake(slot, numberOfPeople)) {
+                    for (long taken = first; taken < slot; taken++) {
+                        inventory.give(taken, numberOfPeople);
+                    }
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    public void release(Long restaurantId, LocalDateTime bookingDateTime, int numberOfPeople) {
+        RestaurantInventory inventory = inventories.get(restaurantId);
+        if (inventory == null) {
+            return;
+        }
+
+        for (long slot = firstSlot(bookingDateTime); slot <= lastSlot(bookingDateTime); slot++) {
+            inventory.give(slot, numberOfPeople);
+        }
+    }
+
+    public void onStatusChanged(Booking booking, Booking.BookingStatus previousStatus) {
+        boolean wasActive = ACTIVE_STATUSES.contains(previousStatus);
+        boolean isActive = ACTIVE_STATUSES.contains(booking.getStatus());
+        Long restaurantId = booking.getRestaurant().getId();
+
+        if (wasActive && !isActive) {
+            release(restaurantId, booking.getBookingDateTime(), booking.getNumberOfPeople());
+        } else if (!wasActive && isActive) {
+            // Re-activation is an explicit status change, so it is honoured even past capacity
+            RestaurantInventory inventory = inventories.get(restaurantId);
+            if (inventory != null) {
+                inventory.forceAdd(booking.getBookingDateTime(), booking.getNumberOfPeople());
+            }
+        }
+    }
+
+    // Drop slots whose seating has already ended
+    @Scheduled(fixedDelayString = "${booking.availability.prune-interval-ms:3600000}")
+    public void pruneExpired() {
+        long cutoff = toSlot(LocalDateTime.now().minusMinutes(seatingMinutes));
+        for (RestaurantInventory inventory : inventories.values()) {
+            inventory.usedCovers.keySet().removeIf(slot -> slot < cutoff);
+        }
+    }
+
+    private long firstSlot(LocalDateTime bookingDateTime) {
+        return toSlot(bookingDateTime);
+    }
+
+    private long lastSlot(LocalDateTime bookingDateTime) {
+        return toSlot(bookingDateTime.plusMinutes(seatingMinutes).minusSeconds(1));
+    }
+
+    private long toSlot(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), slotMinutes * 60L);
+    }
+
+    /**
+     * Covers held by a warm-up booking until it is written; closing it drops the claim.
+     */
+    public final class WarmupClaim implements AutoCloseable {
+        private final Long restaurantId;
+        private final LocalDateTime bookingDateTime;
+        private final int numberOfPeople;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private WarmupClaim(Long restaurantId, LocalDateTime bookingDateTime, int numberOfPeople) {
+            this.restaurantId = restaurantId;
+            this.bookingDateTime = bookingDateTime;
+            this.numberOfPeople = numberOfPeople;
+        }
+
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            Set<WarmupClaim> claims = warmupClaims.get(restaurantId);
+            if (claims != null) {
+                claims.remove(this);
+            }
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private class RestaurantInventory {
+        private volatile int capacity;
+        private final Map<Long, AtomicInteger> usedCovers = new ConcurrentHashMap<>();
+
+        int remaining(long slot) {
+            AtomicInteger used = usedCovers.get(slot);
+            return capacity - (used == null ? 0 : used.get());
+        }
+
+        boolean tryTake(long slot, int covers) {
+            AtomicInteger used = usedCovers.computeIfAbsent(slot, s -> new AtomicInteger());
+            while (true) {
+                int current = used.get();
+                if (current + covers > capacity) {
+                    return false;
+                }
+                if (used.compareAndSet(current, current + covers)) {
+                    return true;
+                }
+            }
+        }
+
+        void give(long slot, int covers) {
+            AtomicInteger used = usedCovers.get(slot);
+            if (used != null) {
+                used.updateAndGet(value -> Math.max(0, value - covers));
+            }
+        }
+
+        void forceAdd(LocalDateTime bookingDateTime, int covers) {
+            for (long slot = firstSlot(bookingDateTime); slot <= lastSlot(bookingDateTime); slot++) {
+                usedCovers.computeIfAbsent(slot, s -> new AtomicInteger()).addAndGet(covers);
+            }
+        }
+    }
+}
@@ -1,26 +1,52 @@
 package com.tabletop.service;
 
+import com.tabletop.dto.AvailabilityGridDTO;
+import com.tabletop.dto.BatchBookingResultDTO;
 import com.tabletop.dto.BookingDTO;
 import com.tabletop.entity.Booking;
 import com.tabletop.entity.Restaurant;
 import com.tabletop.entity.User;
+import com.tabletop.repository.BookingBatchRepository;
 import com.tabletop.repository.BookingRepository;
 import com.tabletop.repository.RestaurantRepository;
 import com.tabletop.repository.UserRepository;
 import com.tabletop.service.ExternalRestaurantApiService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.OutputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @Service
 public class BookingService {
     
+    private static final int MAX_GRID_RESTAURANTS = 500;
+    private static final int MIN_GRID_SLOT_MINUTES = 5;
+    private static final int MAX_GRID_SLOTS = 2016;
+    private static final int MAX_BATCH_BOOKINGS = 50;
+    
     @Autowired
     private BookingRepository bookingRepository;
     
+    @Autowired
+    private BookingBatchRepository bookingBatchRepository;
+    
     @Autowired
     private RestaurantRepository restaurantRepository;
     
@@ -30,96 +56,472 @@ public class BookingService {
     @Autowired
     private ExternalRestaurantApiService externalRestaurantApiService;
     
-    public List<BookingDTO> getAllBookings() {
-        return bookingRepository.findAll()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Autowired
+    private BookingAvailabilityIndex availabilityIndex;
+    
+    @Autowired
+    private PartnerCircuitBreaker circuitBreaker;
+    
+    @Autowired
+    private PartnerRoutingCache partnerRoutingCache;
+    
+    @Autowired
+    private RestaurantStatsService restaurantStatsService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+    
+    @Autowired
+    @Qualifier("bookingExecutor")
+    private TaskExecutor bookingExecutor;
+    
+    public List<BookingDTO> getAllBookings(long beforeId, int limit) {
+        return bookingRepository.findDTOsBefore(beforeId, Limit.of(limit));
     }
     
-    public List<BookingDTO> getBookingsByUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return bookingRepository.findByUser(user)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<BookingDTO> getBookingsByUser(Long userId, long beforeId, int limit) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+        return bookingRepository.findDTOsByUserIdBefore(userId, beforeId, Limit.of(limit));
     }
     
-    public List<BookingDTO> getBookingsByRestaurant(Long restaurantId) {
-        Restaurant restaurant = restaurantRepository.findById(restaurantId)
-                .orElseThrow(() -> new RuntimeException("Restaurant not found"));
-        return bookingRepository.findByRestaurant(restaurant)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<BookingDTO> getBookingsByRestaurant(Long restaurantId, long beforeId, int limit) {
+        if (!restaurantRepository.existsById(restaurantId)) {
+            throw new RuntimeException("Restaurant not found");
+        }
+        return bookingRepository.findDTOsByRestaurantIdBefore(restaurantId, beforeId, Limit.of(limit));
+    }
+    
+    /**
+     * Writes every booking to the stream as newline-delimited JSON, read through a
+     * server-side cursor.
+     */
+    @Transactional(readOnly = true)
+    public void exportBookings(OutputStream out) {
+        ndjsonExporter.export(bookingRepository.streamAllForExport(), this::convertToDTO, out);
+    }
+    
+    public BookingDTO getBookingById(Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+        return convertToDTO(booking);
     }
     
     public BookingDTO createBooking(BookingDTO bookingDTO) {
         User user = userRepository.findById(bookingDTO.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        Restaurant restaurant = restaurantRepository.findById(bookingDTO.getRestaurantId())
+        // Routing metadata is cached, so the restaurant row itself is only referenced, never loaded
+        PartnerRoutingCache.PartnerRoute route = partnerRoutingCache.getRoute(bookingDTO.getRestaurantId());
+        Restaurant restaurant = restaurantRepository.getReferenceById(route.getRestaurantId());
+        
+        validateBookingRequest(bookingDTO);
+        
+        // Hold the covers before calling the restaurant so concurrent requests cannot oversell the slot
+        try (CoverHold hold = holdCovers(route, bookingDTO.getBookingDateTime(), bookingDTO.getNumberOfPeople())) {
+            // Call external restaurant API first
+            ExternalRestaurantApiService.ExternalBookingResult externalResult = 
+                externalRestaurantApiService.callRestaurantApi(restaurant.getId(), bookingDTO);
+            
+            // If external API call failed, throw exception
+            if (!externalResult.isSuccess()) {
+                throw new RuntimeException("Restaurant booking failed: " + externalResult.getMessage());
+            }
+            
+            // Create booking in our database only if external API call succeeded
+            Booking booking = buildBooking(user, restaurant, bookingDTO);
+            booking.setStatus(Booking.BookingStatus.CONFIRMED); // Set as confirmed since external API succeeded
+            
+            Booking savedBooking = transactionTemplate.execute(tx -> {
+                Booking saved = bookingRepository.save(booking);
+                restaurantStatsService.onBookingStatusChanged(
+                        route.getRestaurantId(), saved.getCreatedAt(), null, saved.getStatus());
+                return saved;
+            });
+            hold.keep();
+            return convertToDTO(savedBooking, route.getRestaurantName());
+        }
+    }
+    
+    /**
+     * Persists the booking as PENDING and hands the restaurant API call to the booking
+     * executor, which moves the booking to CONFIRMED or CANCELLED. Clients follow the
+     * outcome by polling the booking.
+     */
+    public BookingDTO createBookingAsync(BookingDTO bookingDTO) {
+        User user = userRepository.findById(bookingDTO.getUserId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        // Routing metadata is cached, so the restaurant row itself is only referenced, never loaded
+        PartnerRoutingCache.PartnerRoute route = partnerRoutingCache.getRoute(bookingDTO.getRestaurantId());
+        Restaurant restaurant = restaurantRepository.getReferenceById(route.getRestaurantId());
+        
+        validateBookingRequest(bookingDTO);
+        
+        Booking savedBooking;
+        try (CoverHold hold = holdCovers(route, bookingDTO.getBookingDateTime(), bookingDTO.getNumberOfPeople())) {
+            Booking booking = buildBooking(user, restaurant, bookingDTO);
+            booking.setStatus(Booking.BookingStatus.PENDING);
+            savedBooking = bookingRepository.save(booking);
+            hold.keep();
+        }
+        
+        Long bookingId = savedBooking.getId();
+        try {
+            bookingExecutor.execute(() -> confirmWithRestaurant(bookingId, route.getRestaurantId(), bookingDTO));
+        } catch (TaskRejectedException e) {
+            transitionStatus(bookingId, Booking.BookingStatus.PENDING, Booking.BookingStatus.CANCELLED);
+            throw new RuntimeException("Booking queue is full, please try again shortly");
+        }
+        
+        return convertToDTO(savedBooking, route.getRestaurantName());
+    }
+    
+    /**
+     * Books many tables at once: every item is validated and has its covers held, the
+     * partner APIs are called in parallel on the booking executor, and all confirmed
+     * bookings are written in one JDBC batch. Each item reports its own outcome.
+     */
+    public List<BatchBookingResultDTO> createBookingsBatch(List<BookingDTO> bookingDTOs) {
+        if (bookingDTOs.size() > MAX_BATCH_BOOKINGS) {
+            throw new RuntimeException("At most " + MAX_BATCH_BOOKINGS + " bookings can be made at once");
+        }
+        
+        BatchBookingResultDTO[] results = new BatchBookingResultDTO[bookingDTOs.size()];
+        Map<Long, User> users = userRepository.findAllById(bookingDTOs.stream()
+                        .map(BookingDTO::getUserId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+        
+        List<BatchItem> items = new ArrayList<>();
+        try {
+            for (int i = 0; i < bookingDTOs.size(); i++) {
+                BookingDTO bookingDTO = bookingDTOs.get(i);
+                try {
+                    User user = users.get(bookingDTO.getUserId());
+                    if (user == null) {
+                        throw new RuntimeException("User not found");
+                    }
+                    PartnerRoutingCache.PartnerRoute route = partnerRoutingCache.getRoute(bookingDTO.getRestaurantId());
+                    validateBookingRequest(bookingDTO);
+                    items.add(new BatchItem(i, bookingDTO, user, route));
+                } catch (RuntimeException e) {
+                    results[i] = new BatchBookingResultDTO(i, false, e.getMessage(), null);
+                }
+            }
+            
+            holdBatchCovers(items, results);
+            items.removeIf(item -> item.hold == null);
+            
+            for (BatchItem item : items) {
+                try {
+                    item.partnerCall = CompletableFuture.supplyAsync(() -> externalRestaurantApiService
+                            .callRestaurantApi(item.route.getRestaurantId(), item.bookingDTO), bookingExecutor);
+                } catch (TaskRejectedException e) {
+                    item.partnerCall = CompletableFuture.failedFuture(
+                            new RuntimeException("Booking queue is full, please try again shortly"));
+                }
+            }
+            
+            List<BatchItem> confirmedItems = new ArrayList<>();
+            for (BatchItem item : items) {
+                try {
+                    ExternalRestaurantApiService.ExternalBookingResult externalResult = item.partnerCall.join();
+                    if (!externalResult.isSuccess()) {
+                        throw new RuntimeException("Restaurant booking failed: " + externalResult.getMessage());
+                    }
+                    item.booking = buildBooking(item.user, 
+                            restaurantRepository.getReferenceById(item.route.getRestaurantId()), item.bookingDTO);
+                    item.booking.setStatus(Booking.BookingStatus.CONFIRMED);
+                    confirmedItems.add(item);
+                } catch (CompletionException e) {
+                    results[item.index] = new BatchBookingResultDTO(item.index, false, e.getCause().getMessage(), null);
+                } catch (RuntimeException e) {
+                    results[item.index] = new BatchBookingResultDTO(item.index, false, e.getMessage(), null);
+                }
+            }
+            
+            if (!confirmedItems.isEmpty()) {
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> {
+                        bookingBatchRepository.insertAll(confirmedItems.stream()
+                                .map(item -> item.booking)
+                                .collect(Collectors.toList()));
+                        restaurantStatsService.onBookingsConfirmed(confirmedItems.stream()
+                                .map(item -> item.booking)
+                                .collect(Collectors.toList()));
+                    });
+                    for (BatchItem item : confirmedItems) {
+                        item.hold.keep();
+                        results[item.index] = new BatchBookingResultDTO(item.index, true, "Booking confirmed", 
+                                convertToDTO(item.booking, item.route.getRestaurantName()));
+                    }
+                } catch (RuntimeException e) {
+                    for (BatchItem item : confirmedItems) {
+                        results[item.index] = new BatchBookingResultDTO(item.index, false, 
+                                "Unable to save booking", null);
+                    }
+                }
+            }
+        } finally {
+            // Covers of every item that was not saved go back to the inventory
+            for (BatchItem item : items) {
+                if (item.hold != null) {
+                    item.hold.close();
+                }
+            }
+        }
+        
+        return Arrays.asList(results);
+    }
+    
+    public BookingDTO updateBookingStatus(Long bookingId, Booking.BookingStatus status) {
+        return convertToDTO(applyStatus(bookingId, status));
+    }
+    
+    public void cancelBooking(Long bookingId) {
+        applyStatus(bookingId, Booking.BookingStatus.CANCELLED);
+    }
+    
+    public boolean isTimeSlotAvailable(Long restaurantId, LocalDateTime bookingDateTime) {
+        return isTimeSlotAvailable(restaurantId, bookingDateTime, 1);
+    }
+    
+    public boolean isTimeSlotAvailable(Long restaurantId, LocalDateTime bookingDateTime, int numberOfPeople) {
+        // A restaurant whose booking API circuit is open cannot take bookings right now
+        if (!circuitBreaker.isCallPermitted(restaurantId)) {
+            return false;
+        }
+        return getRemainingCovers(restaurantId, bookingDateTime) >= numberOfPeople;
+    }
+    
+    public int getRemainingCovers(Long restaurantId, LocalDateTime bookingDateTime) {
+        // Serve from the in-memory inventory once it has been warmed up
+        if (availabilityIndex.isReady() && availabilityIndex.isKnownRestaurant(restaurantId)) {
+            return availabilityIndex.getRemainingCovers(restaurantId, bookingDateTime);
+        }
+        
+        Restaurant restaurant = restaurantRepository.findById(restaurantId)
                 .orElseThrow(() -> new RuntimeException("Restaurant not found"));
         
-        // Call external restaurant API first
-        ExternalRestaurantApiService.ExternalBookingResult externalResult = 
-            externalRestaurantApiService.callRestaurantApi(restaurant.getId(), bookingDTO);
+        if (availabilityIndex.isReady()) {
+            availabilityIndex.registerRestaurant(restaurantId, restaurant.getCapacity());
+            return availabilityIndex.getRemainingCovers(restaurantId, bookingDateTime);
+        }
+        return getRemainingCoversFromDatabase(restaurant, bookingDateTime);
+    }
+    
+    public AvailabilityGridDTO getAvailabilityGrid(List<Long> restaurantIds, LocalDateTime from, 
+                                                   LocalDateTime to, int slotMinutes, int numberOfPeople) {
+        if (!availabilityIndex.isReady()) {
+            throw new RuntimeException("Availability is still loading, please retry shortly");
+        }
+        if (restaurantIds.size() > MAX_GRID_RESTAURANTS) {
+            throw new RuntimeException("At most " + MAX_GRID_RESTAURANTS + " restaurants can be requested at once");
+        }
+        if (slotMinutes < MIN_GRID_SLOT_MINUTES) {
+            throw new RuntimeException("Slot granularity must be at least " + MIN_GRID_SLOT_MINUTES + " minutes");
+        }
+        if (numberOfPeople < 1) {
+            throw new RuntimeException("Number of people must be at least 1");
+        }
+        if (!to.isAfter(from)) {
+            throw new RuntimeException("End of range must be after its start");
+        }
+        
+        long slotCount = Duration.between(from, to).toMinutes() / slotMinutes;
+        if (slotCount == 0) {
+            throw new RuntimeException("Requested range must cover at least one slot");
+        }
+        if (slotCount > MAX_GRID_SLOTS) {
+            throw new RuntimeException("Requested range is too large for the slot granularity");
+        }
         
-        // If external API call failed, throw exception
-        if (!externalResult.isSuccess()) {
-            throw new RuntimeException("Restaurant booking failed: " + externalResult.getMessage());
+        Map<Long, List<Integer>> availability = new LinkedHashMap<>();
+        for (Long restaurantId : restaurantIds) {
+            if (circuitBreaker.isCallPermitted(restaurantId)) {
+                availability.put(restaurantId, availabilityIndex.encodeAvailability(
+                        restaurantId, from, (int) slotCount, slotMinutes, numberOfPeople));
+            } else {
+                availability.put(restaurantId, List.of(0, (int) slotCount));
+            }
         }
         
-        // Create booking in our database only if external API call succeeded
+        AvailabilityGridDTO grid = new AvailabilityGridDTO();
+        grid.setFrom(from);
+        grid.setTo(to);
+        grid.setSlotMinutes(slotMinutes);
+        grid.setNumberOfPeople(numberOfPeople);
+        grid.setSlotCount((int) slotCount);
+        grid.setAvailability(availability);
+        return grid;
+    }
+    
+    private void confirmWithRestaurant(Long bookingId, Long restaurantId, BookingDTO bookingDTO) {
+        boolean confirmed;
+        try {
+            confirmed = externalRestaurantApiService.callRestaurantApi(restaurantId, bookingDTO).isSuccess();
+        } catch (RuntimeException e) {
+            confirmed = false;
+        }
+        // Only a booking that is still PENDING is resolved; one the user cancelled meanwhile stays cancelled
+        transitionStatus(bookingId, Booking.BookingStatus.PENDING,
+                confirmed ? Booking.BookingStatus.CONFIRMED : Booking.BookingStatus.CANCELLED);
+    }
+    
+    private Booking applyStatus(Long bookingId, Booking.BookingStatus status) {
+        while (true) {
+            Booking booking = bookingRepository.findById(bookingId)
+                    .orElseThrow(() -> new RuntimeException("Booking not found"));
+            Booking updatedBooking = transitionStatus(bookingId, booking.getStatus(), status);
+            if (updatedBooking != null) {
+                return updatedBooking;
+            }
+            // The status changed between the read and the update; apply ours to the new one
+        }
+    }
+    
+    /**
+     * Moves the booking from {@code expectedStatus} to {@code newStatus} with a conditional
+     * update, so concurrent changes cannot overwrite each other. Statistics and inventory
+     * follow only when the update took effect; returns null when the booking was no longer
+     * in the expected status.
+     */
+    private Booking transitionStatus(Long bookingId, Booking.BookingStatus expectedStatus, 
+                                     Booking.BookingStatus newStatus) {
+        // The status change and the restaurant statistics commit together
+        Booking updatedBooking = transactionTemplate.execute(tx -> {
+            if (bookingRepository.updateStatusIfCurrent(bookingId, expectedStatus, newStatus) == 0) {
+                return null;
+            }
+            Booking updated = bookingRepository.findById(bookingId)
+                    .orElseThrow(() -> new RuntimeException("Booking not found"));
+            restaurantStatsService.onBookingStatusChanged(
+                    updated.getRestaurant().getId(), updated.getCreatedAt(), expectedStatus, newStatus);
+            return updated;
+        });
+        if (updatedBooking != null) {
+            availabilityIndex.onStatusChanged(updatedBooking, expectedStatus);
+        }
+        return updatedBooking;
+    }
+    
+    private void validateBookingRequest(BookingDTO bookingDTO) {
+        if (bookingDTO.getBookingDateTime() == null) {
+            throw new RuntimeException("Booking date and time is required");
+        }
+        if (!bookingDTO.getBookingDateTime().isAfter(LocalDateTime.now())) {
+            throw new RuntimeException("Booking date must be in the future");
+        }
+        if (bookingDTO.getNumberOfPeople() == null || bookingDTO.getNumberOfPeople() < 1) {
+            throw new RuntimeException("Number of people must be at least 1");
+        }
+    }
+    
+    private Booking buildBooking(User user, Restaurant restaurant, BookingDTO bookingDTO) {
         Booking booking = new Booking();
         booking.setUser(user);
         booking.setRestaurant(restaurant);
         booking.setBookingDateTime(bookingDTO.getBookingDateTime());
         booking.setNumberOfPeople(bookingDTO.getNumberOfPeople());
         booking.setSpecialRequests(bookingDTO.getSpecialRequests());
-        booking.setStatus(Booking.BookingStatus.CONFIRMED); // Set as confirmed since external API succeeded
-        
-        Booking savedBooking = bookingRepository.save(booking);
-        return convertToDTO(savedBooking);
+        return booking;
     }
     
-    public BookingDTO updateBookingStatus(Long bookingId, Booking.BookingStatus status) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new RuntimeException("Booking not found"));
+    private CoverHold holdCovers(PartnerRoutingCache.PartnerRoute route, LocalDateTime bookingDateTime, 
+                                 int numberOfPeople) {
+        Long restaurantId = route.getRestaurantId();
+        if (!availabilityIndex.enterWarmup()) {
+            if (!availabilityIndex.isKnownRestaurant(restaurantId)) {
+                availabilityIndex.registerRestaurant(restaurantId, route.getCapacity());
+            }
+            if (!availabilityIndex.tryReserve(restaurantId, bookingDateTime, numberOfPeople)) {
+                throw new RuntimeException("Not enough tables available for the selected time");
+            }
+            return new CoverHold(restaurantId, bookingDateTime, numberOfPeople, null);
+        }
         
-        booking.setStatus(status);
-        Booking updatedBooking = bookingRepository.save(booking);
-        return convertToDTO(updatedBooking);
+        // Inventory still warming up: check the database under the slot stripes and claim the
+        // covers until the booking is inserted; the stripes are released before any remote call
+        try (SlotLockStripes.Held slotLock = availabilityIndex.lockSlots(restaurantId, bookingDateTime)) {
+            return claimWarmupCovers(restaurantId, bookingDateTime, numberOfPeople);
+        } finally {
+            availabilityIndex.exitWarmup();
+        }
     }
     
-    public void cancelBooking(Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new RuntimeException("Booking not found"));
+    /**
+     * Holds covers for every batch item. During warm-up the stripes of all items are locked
+     * once, in ascending order, and each check counts the covers claimed by earlier items.
+     * Items that cannot be held get their failure result and no hold.
+     */
+    private void holdBatchCovers(List<BatchItem> items, BatchBookingResultDTO[] results) {
+        if (!availabilityIndex.enterWarmup()) {
+            for (BatchItem item : items) {
+                try {
+                    item.hold = holdCovers(item.route, item.bookingDTO.getBookingDateTime(), 
+                            item.bookingDTO.getNumberOfPeople());
+                } catch (RuntimeException e) {
+                    results[item.index] = new BatchBookingResultDTO(item.index, false, e.getMessage(), null);
+                }
+            }
+            return;
+        }
         
-        booking.setStatus(Booking.BookingStatus.CANCELLED);
-        bookingRepository.save(booking);
+        List<SlotLockStripes.SlotRange> ranges = items.stream()
+                .map(item -> availabilityIndex.slotRange(item.route.getRestaurantId(), item.bookingDTO.getBookingDateTime()))
+                .collect(Collectors.toList());
+        try (SlotLockStripes.Held slotLock = availabilityIndex.lockSlots(ranges)) {
+            for (BatchItem item : items) {
+                try {
+                    item.hold = claimWarmupCovers(item.route.getRestaurantId(), 
+                            item.bookingDTO.getBookingDateTime(), item.bookingDTO.getNumberOfPeople());
+                } catch (RuntimeException e) {
+                    results[item.index] = new BatchBookingResultDTO(item.index, false, e.getMessage(), null);
+                }
+            }
+        } finally {
+            availabilityIndex.exitWarmup();
+        }
     }
     
-    public boolean isTimeSlotAvailable(Long restaurantId, LocalDateTime bookingDateTime) {
+    // Callers hold the slot stripes, so the check and the claim cannot interleave with a competitor
+    private CoverHold claimWarmupCovers(Long restaurantId, LocalDateTime bookingDateTime, int numberOfPeople) {
         Restaurant restaurant = restaurantRepository.findById(restaurantId)
                 .orElseThrow(() -> new RuntimeException("Restaurant not found"));
-        
-        LocalDateTime startTime = bookingDateTime.minusHours(1);
-        LocalDateTime endTime = bookingDateTime.plusHours(1);
-        
-        List<Booking> conflictingBookings = bookingRepository.findConflictingBookings(
-                restaurant, startTime, endTime);
-        
-        return conflictingBookings.isEmpty();
+        if (getRemainingCoversFromDatabase(restaurant, bookingDateTime) < numberOfPeople) {
+            throw new RuntimeException("Not enough tables available for the selected time");
+        }
+        return new CoverHold(null, bookingDateTime, numberOfPeople, 
+                availabilityIndex.claimWarmupCovers(restaurantId, bookingDateTime, numberOfPeople));
+    }
+    
+    // Includes covers claimed by warm-up bookings that are not inserted yet
+    private int getRemainingCoversFromDatabase(Restaurant restaurant, LocalDateTime bookingDateTime) {
+        int seatingMinutes = availabilityIndex.getSeatingMinutes();
+        Long takenCovers = bookingRepository.sumCoversInWindow(restaurant,
+                bookingDateTime.minusMinutes(seatingMinutes), bookingDateTime.plusMinutes(seatingMinutes));
+        int claimedCovers = availabilityIndex.getClaimedWarmupCovers(restaurant.getId(), bookingDateTime);
+        int capacity = availabilityIndex.effectiveCapacity(restaurant.getCapacity());
+        return Math.max(0, capacity - takenCovers.intValue() - claimedCovers);
     }
     
     private BookingDTO convertToDTO(Booking booking) {
+        return convertToDTO(booking, booking.getRestaurant().getName());
+    }
+    
+    private BookingDTO convertToDTO(Booking booking, String restaurantName) {
         BookingDTO dto = new BookingDTO();
         dto.setId(booking.getId());
         dto.setUserId(booking.getUser().getId());
         dto.setRestaurantId(booking.getRestaurant().getId());
-        dto.setRestaurantName(booking.getRestaurant().getName());
+        dto.setRestaurantName(restaurantName);
         dto.setBookingDateTime(booking.getBookingDateTime());
         dto.setNumberOfPeople(booking.getNumberOfPeople());
         dto.setSpecialRequests(booking.getSpecialRequests());
@@ -127,4 +529,56 @@ public class BookingService {
         dto.setCreatedAt(booking.getCreatedAt());
         return dto;
     }
+    
+    /**
+     * Covers held for a booking in flight. Unless {@link #keep()} is called, closing the
+     * hold gives reserved covers back; a warm-up claim is always dropped, since by then the
+     * booking is either in the database or abandoned.
+     */
+    private class CoverHold implements AutoCloseable {
+        private final Long reservedRestaurantId;
+        private final LocalDateTime bookingDateTime;
+        private final int numberOfPeople;
+        private final BookingAvailabilityIndex.WarmupClaim warmupClaim;
+        private boolean kept = false;
+        
+        CoverHold(Long reservedRestaurantId, LocalDateTime bookingDateTime, int numberOfPeople, 
+                  BookingAvailabilityIndex.WarmupClaim warmupClaim) {
+            this.reservedRestaurantId = reservedRestaurantId;
+            this.bookingDateTime = bookingDateTime;
+            this.numberOfPeople = numberOfPeople;
+            this.warmupClaim = warmupClaim;
+        }
+        
+        void keep() {
+            kept = true;
+        }
+        
+        @Override
+        public void close() {
+            if (!kept && reservedRestaurantId != null) {
+                availabilityIndex.release(reservedRestaurantId, bookingDateTime, numberOfPeople);
+            }
+            if (warmupClaim != null) {
+                warmupClaim.close();
+            }
+        }
+    }
+    
+    private static class BatchItem {
+        private final int index;
+        private final BookingDTO bookingDTO;
+        private final User user;
+        private final PartnerRoutingCache.PartnerRoute route;
+        private CoverHold hold;
+        private CompletableFuture<ExternalRestaurantApiService.ExternalBookingResult> partnerCall;
+        private Booking booking;
+        
+        BatchItem(int index, BookingDTO bookingDTO, User user, PartnerRoutingCache.PartnerRoute route) {
+            this.index = index;
+            this.bookingDTO = bookingDTO;
+            this.user = user;
+            this.route = route;
+        }
+    }
 }
@@ -0,0 +1,210 @@
+package com.tabletop.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized, and pre-gzipped, bodies of hot catalog responses keyed by endpoint and
+ * normalized query parameters. Entries are tagged with the catalog version they were
+ * rendered at and are ignored once the version moves on, so restaurant, booking and
+ * review changes invalidate them without any explicit eviction. Concurrent misses for the
+ * same key and version share one rendering.
+ */
+@Component
+public class CatalogResponseCache {
+
+    private static final int MIN_GZIP_BYTES = 512;
+
+    // Response headers rendered alongside the body that must be replayed on a hit
+    private static final String[] REPLAYED_HEADERS = { "X-Next-Cursor" };
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${catalog.response-cache.max-entries:500}")
+    private int maxEntries;
+
+    private final Map<String, CachedResponse> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    // Renderings in progress, keyed by version and cache key
+    private final Map<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Cache key for an endpoint: parameters are sorted by name, null ones dropped and
+     * values trimmed, so equivalent requests share an entry.
+     */
+    public static String key(String endpoint, Object... namesAndValues) {
+        Map<String, String> params = new TreeMap<>();
+        for (int i = 0; i + 1 < namesAndValues.length; i += 2) {
+            Object value = namesAndValues[i + 1];
+            if (value instanceof BigDecimal decimal) {
+                params.put((String) namesAndValues[i], decimal.stripTrailingZeros().toPlainString());
+            } else if (value != null) {
+                params.put((String) namesAndValues[i], value.toString().trim());
+            }
+        }
+        return endpoint + "?" + params;
+    }
+
+    /**
+     * Serves the cached bytes for the key, rendering and caching them first when missing
+     * or stale. Only successful responses are cached.
+     */
+    public ResponseEntity<byte[]> respond(String key, boolean acceptsGzip, Supplier<ResponseEntity<?>> renderer) {
+        // Read the version before rendering, so a change mid-render leaves the entry stale
+        String version = catalogVersion.getETag();
+        CachedResponse cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+
+        if (cached != null && cached.version.equals(version)) {
+            hits.incrementAndGet();
+            return toResponse(cached, acceptsGzip);
+        }
+
+        String flightKey = version + " " + key;
+        CompletableFuture<CachedResponse> rendering = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> leader = inFlight.putIfAbsent(flightKey, rendering);
+        if (leader != null) {
+            coalesced.incrementAndGet();
+            cached = await(leader);
+        } else {
+            misses.incrementAndGet();
+            try {
+                cached = render(version, renderer.get());
+                // Cached before the flight ends, so later requests find it instead of rendering again
+                if (cached.isSuccessful()) {
+                    synchronized (entries) {
+                        entries.put(key, cached);
+                    }
+                }
+                rendering.complete(cached);
+            } catch (RuntimeException e) {
+                rendering.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(flightKey, rendering);
+            }
+        }
+
+        return toResponse(cached, acceptsGzip && cached.isSuccessful());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("entries", entries.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("coalesced", coalesced.get());
+        return stats;
+    }
+
+    // Waiters see the leader's failure as their own
+    private CachedResponse await(CompletableFuture<CachedResponse> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private CachedResponse render(String version, ResponseEntity<?> rendered) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(rendered.getBody());
+            HttpHeaders headers = new HttpHeaders();
+            for (String name : REPLAYED_HEADERS) {
+                String value = rendered.getHeaders().getFirst(name);
+                if (value != null) {
+                    headers.set(name, value);
+                }
+            }
+            return new CachedResponse(version, rendered.getStatusCode().value(), headers, body,
+                    body.length >= MIN_GZIP_BYTES ? gzip(body) : null);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Unable to serialize catalog response", e);
+        }
+    }
+
+    private ResponseEntity<byte[]> toResponse(CachedResponse cached, boolean acceptsGzip) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(cached.headers);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        byte[] body = cached.body;
+        if (acceptsGzip && cached.gzippedBody != null) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = cached.gzippedBody;
+        }
+        return ResponseEntity.status(cached.status).headers(headers).body(body);
+    }
+
+    private byte[] gzip(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static class CachedResponse {
+        private final String version;
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final byte[] gzippedBody;
+
+        CachedResponse(String version, int status, HttpHeaders headers, byte[] body, byte[] gzippedBody) {
+            this.version = version;
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.gzippedBody = gzippedBody;
+        }
+
+        boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
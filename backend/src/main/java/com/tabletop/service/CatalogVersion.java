@@ -0,0 +1,33 @@
+package com.tabletop.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of everything the restaurant catalog responses show: restaurant rows, their
+ * booking and review statistics and whether their booking API is reachable. Every change
+ * bumps the counter, and catalog ETags and Last-Modified headers are derived from it.
+ * The ETag is weak because the same version is served both plain and gzip-encoded.
+ */
+@Component
+public class CatalogVersion {
+    
+    // Distinguishes counters of different runs, which both start from zero
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastModified = System.currentTimeMillis();
+    
+    public void bump() {
+        version.incrementAndGet();
+        lastModified = System.currentTimeMillis();
+    }
+    
+    public String getETag() {
+        return "W/\"" + epoch + "-" + version.get() + "\"";
+    }
+    
+    public long getLastModified() {
+        return lastModified;
+    }
+}
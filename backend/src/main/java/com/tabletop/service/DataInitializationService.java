@@ -77,6 +77,8 @@ public class DataInitializationService implements CommandLineRunner {
             restaurant1.setImageUrl("https://images.unsplash.com/photo-1517248135467-4c7edcad34c4?w=500");
             restaurant1.setBookingApiUrl("http://localhost:4000/api/v1/colombo-spice/booking");
             restaurant1.setSecretKey("colombo_spice_secret_2024");
+            restaurant1.setLatitude(6.9010);
+            restaurant1.setLongitude(79.8500);
             restaurantRepository.save(restaurant1);
         }
         
@@ -94,6 +96,8 @@ public class DataInitializationService implements CommandLineRunner {
             restaurant2.setImageUrl("https://images.unsplash.com/photo-1555396273-367ea4eb4db5?w=500");
             restaurant2.setBookingApiUrl("http://localhost:4001/kandy/api/v1/royal/booking");
             restaurant2.setSecretKey("kandy_royal_secret_2024");
+            restaurant2.setLatitude(7.2906);
+            restaurant2.setLongitude(80.6337);
             restaurantRepository.save(restaurant2);
         }
         
@@ -111,6 +115,8 @@ public class DataInitializationService implements CommandLineRunner {
             restaurant3.setImageUrl("https://images.unsplash.com/photo-1414235077428-338989a2e8c0?w=500");
             restaurant3.setBookingApiUrl("http://localhost:4002/galle/api/v2/fort/reservations");
             restaurant3.setSecretKey("galle_fort_secret_2024");
+            restaurant3.setLatitude(6.0269);
+            restaurant3.setLongitude(80.2170);
             restaurantRepository.save(restaurant3);
         }
         
@@ -128,6 +134,8 @@ public class DataInitializationService implements CommandLineRunner {
             restaurant4.setImageUrl("https://images.unsplash.com/photo-1579584425555-c3ce17fd4351?w=500");
             restaurant4.setBookingApiUrl("http://localhost:4003/negombo/api/v1/beach/table-booking");
             restaurant4.setSecretKey("negombo_beach_secret_2024");
+            restaurant4.setLatitude(7.2131);
+            restaurant4.setLongitude(79.8386);
             restaurantRepository.save(restaurant4);
         }
         
@@ -145,6 +153,8 @@ public class DataInitializationService implements CommandLineRunner {
             restaurant5.setImageUrl("https://images.unsplash.com/photo-1551183053-bf91a1d81141?w=500");
             restaurant5.setBookingApiUrl("http://localhost:4004/anuradhapura/api/v3/heritage/reserve");
             restaurant5.setSecretKey("anuradhapura_heritage_secret_2024");
+            restaurant5.setLatitude(8.3114);
+            restaurant5.setLongitude(80.4037);
             restaurantRepository.save(restaurant5);
         }
         
@@ -1,10 +1,11 @@
 package com.tabletop.service;
 
-import com.tabletop.config.RestaurantApiConfig;
 import com.tabletop.dto.BookingDTO;
-import com.tabletop.entity.Restaurant;
-import com.tabletop.repository.RestaurantRepository;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
@@ -12,37 +13,48 @@ import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Service
 public class ExternalRestaurantApiService {
     
     @Autowired
-    private RestaurantApiConfig restaurantApiConfig;
+    private PartnerRoutingCache partnerRoutingCache;
     
     @Autowired
-    private RestaurantRepository restaurantRepository;
+    @Qualifier("partnerRestTemplate")
+    private RestTemplate restTemplate;
     
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private PoolingHttpClientConnectionManager partnerConnectionManager;
+    
+    @Autowired
+    private PartnerCircuitBreaker circuitBreaker;
     
     public ExternalBookingResult callRestaurantApi(Long restaurantId, BookingDTO bookingDTO) {
-        // Get restaurant from database to access booking API URL
-        Restaurant restaurant = restaurantRepository.findById(restaurantId)
-                .orElseThrow(() -> new RuntimeException("Restaurant not found"));
+        // Partner routing comes from the cache, not from another restaurant lookup
+        PartnerRoutingCache.PartnerRoute route = partnerRoutingCache.getRoute(restaurantId);
         
-        String bookingApiUrl = restaurant.getBookingApiUrl();
-        if (bookingApiUrl == null || bookingApiUrl.trim().isEmpty()) {
+        String bookingApiUrl = route.getUrl();
+        if (bookingApiUrl == null) {
             return new ExternalBookingResult(false, "Restaurant booking API not configured", null);
         }
         
+        // Fail fast while the partner is known to be down
+        if (!circuitBreaker.tryAcquirePermission(restaurantId)) {
+            return new ExternalBookingResult(false, "Restaurant booking temporarily unavailable, please try again later", null);
+        }
+        
+        long startedAt = System.currentTimeMillis();
         try {
             // Prepare request headers
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
             
             // Add secret key to headers if available
-            String secretKey = restaurant.getSecretKey();
-            if (secretKey != null && !secretKey.trim().isEmpty()) {
+            String secretKey = route.getSecretKey();
+            if (secretKey != null) {
                 headers.set("X-API-Key", secretKey);
             }
             
@@ -58,13 +70,14 @@ public class ExternalRestaurantApiService {
             // Make the API call
             ResponseEntity<Map> response = restTemplate.exchange(
                 bookingApiUrl,
-                HttpMethod.POST,
+                HttpMethod.valueOf(route.getMethod()),
                 request,
                 Map.class
             );
             
             // Handle successful responses (200, 201)
             if (response.getStatusCode().is2xxSuccessful()) {
+                circuitBreaker.recordSuccess(restaurantId, System.currentTimeMillis() - startedAt);
                 Map<String, Object> responseBody = response.getBody();
                 String message = "Booking confirmed with restaurant";
                 if (responseBody != null && responseBody.containsKey("message")) {
@@ -73,25 +86,49 @@ public class ExternalRestaurantApiService {
                 return new ExternalBookingResult(true, message, responseBody);
             }
             
+            circuitBreaker.recordFailure(restaurantId, System.currentTimeMillis() - startedAt);
             return new ExternalBookingResult(false, "Unexpected response from restaurant", null);
             
         } catch (HttpClientErrorException e) {
-            // Handle 4xx errors (400, 404, etc.)
+            // Handle 4xx errors (400, 404, etc.) - the partner is up, it just rejected the booking
+            circuitBreaker.recordSuccess(restaurantId, System.currentTimeMillis() - startedAt);
             String errorMessage = "Restaurant booking not available: " + e.getResponseBodyAsString();
             return new ExternalBookingResult(false, errorMessage, null);
             
         } catch (HttpServerErrorException e) {
             // Handle 5xx errors (500, 503, etc.)
+            circuitBreaker.recordFailure(restaurantId, System.currentTimeMillis() - startedAt);
             String errorMessage = "Restaurant system temporarily unavailable";
             return new ExternalBookingResult(false, errorMessage, null);
             
         } catch (Exception e) {
             // Handle other exceptions (network issues, timeouts, etc.)
+            circuitBreaker.recordFailure(restaurantId, System.currentTimeMillis() - startedAt);
             String errorMessage = "Unable to connect to restaurant booking system";
             return new ExternalBookingResult(false, errorMessage, null);
         }
     }
     
+    public Map<String, Object> getConnectionPoolStats() {
+        Map<String, Object> stats = toMap(partnerConnectionManager.getTotalStats());
+        
+        Map<String, Object> partners = new LinkedHashMap<>();
+        for (HttpRoute route : partnerConnectionManager.getRoutes()) {
+            partners.put(route.getTargetHost().toHostString(), toMap(partnerConnectionManager.getStats(route)));
+        }
+        stats.put("partners", partners);
+        return stats;
+    }
+    
+    private Map<String, Object> toMap(PoolStats poolStats) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("leased", poolStats.getLeased());
+        stats.put("pending", poolStats.getPending());
+        stats.put("idle", poolStats.getAvailable());
+        stats.put("max", poolStats.getMax());
+        return stats;
+    }
+    
     public static class ExternalBookingResult {
         private final boolean success;
         private final String message;
@@ -0,0 +1,112 @@
+package com.tabletop.service;
+
+import com.tabletop.repository.FavoriteRepository;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Each user's favorite restaurant IDs as a compressed bitmap, so "is this favorited"
+ * checks, single or batched, are answered without touching the database. Built once at
+ * startup and kept current by the favorite add and remove endpoints.
+ */
+@Component
+public class FavoritesIndex {
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private IndexRebuildSupport rebuildSupport;
+
+    // Replaced as a whole by a rebuild; lookups read it without locking
+    private volatile Map<Long, Roaring64Bitmap> favoritesByUser = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready = false;
+
+    // A fresh map is built and published under the write lock, so a favorite added or
+    // removed meanwhile waits and is applied on top of the new snapshot
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildSupport.rebuild(lock, () -> {
+            Map<Long, Roaring64Bitmap> loaded = new ConcurrentHashMap<>();
+            for (Object[] row : favoriteRepository.findAllUserAndRestaurantIds()) {
+                loaded.computeIfAbsent((Long) row[0], id -> new Roaring64Bitmap()).addLong((Long) row[1]);
+            }
+            loaded.values().forEach(Roaring64Bitmap::runOptimize);
+            favoritesByUser = loaded;
+            ready = true;
+        });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void add(Long userId, Long restaurantId) {
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap favorites = favoritesByUser.computeIfAbsent(userId, id -> new Roaring64Bitmap());
+            synchronized (favorites) {
+                favorites.addLong(restaurantId);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void remove(Long userId, Long restaurantId) {
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap favorites = favoritesByUser.get(userId);
+            if (favorites == null) {
+                return;
+            }
+            synchronized (favorites) {
+                favorites.removeLong(restaurantId);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isFavorited(Long userId, Long restaurantId) {
+        Roaring64Bitmap favorites = favoritesByUser.get(userId);
+        if (favorites == null) {
+            return false;
+        }
+        synchronized (favorites) {
+            return favorites.contains(restaurantId);
+        }
+    }
+
+    /**
+     * The given restaurant IDs the user has favorited, in the order they were asked for.
+     */
+    public List<Long> filterFavorited(Long userId, Collection<Long> restaurantIds) {
+        List<Long> favorited = new ArrayList<>();
+        Roaring64Bitmap favorites = favoritesByUser.get(userId);
+        if (favorites == null) {
+            return favorited;
+        }
+        synchronized (favorites) {
+            for (Long restaurantId : restaurantIds) {
+                if (restaurantId != null && favorites.contains(restaurantId)) {
+                    favorited.add(restaurantId);
+                }
+            }
+        }
+        return favorited;
+    }
+}
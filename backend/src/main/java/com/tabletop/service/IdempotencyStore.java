@@ -0,0 +1,168 @@
+package com.tabletop.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-evicting store of request results keyed by client supplied idempotency keys,
+ * scoped to the caller so two users can never share a key. The first request for a key runs
+ * the action; repeats get the stored result and concurrent duplicates wait for the in-flight
+ * one. A key reused with a different request body is rejected with 422. Failed results are
+ * not kept, so clients may retry.
+ */
+@Component
+public class IdempotencyStore {
+    
+    @Value("${idempotency.max-entries:10000}")
+    private int maxEntries;
+    
+    @Value("${idempotency.ttl-ms:86400000}")
+    private long ttlMs;
+    
+    @Value("${idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    // A replaced or retried key leaves its old queue entry behind; the sequence tells them apart
+    private final Queue<QueuedKey> insertionOrder = new ConcurrentLinkedQueue<>();
+    
+    private final AtomicLong sequence = new AtomicLong();
+    
+    public <T> T execute(String scope, String idempotencyKey, Object request, Supplier<T> action) {
+        return execute(scope + ":" + idempotencyKey, requestHash(request), action);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T> T execute(String key, byte[] requestHash, Supplier<T> action) {
+        Entry candidate = new Entry(requestHash, System.currentTimeMillis() + ttlMs, sequence.incrementAndGet());
+        Entry existing = entries.putIfAbsent(key, candidate);
+        
+        if (existing != null && !existing.isExpired()) {
+            if (!Arrays.equals(existing.requestHash, requestHash)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key was already used with a different request");
+            }
+            return (T) await(existing);
+        }
+        if (existing != null) {
+            // Expired entry still in the map, replace it atomically
+            if (!entries.replace(key, existing, candidate)) {
+                return execute(key, requestHash, action);
+            }
+        }
+        
+        insertionOrder.add(new QueuedKey(key, candidate.sequence));
+        evictOverflow();
+        
+        try {
+            T result = action.get();
+            candidate.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            entries.remove(key, candidate);
+            candidate.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        entries.entrySet().removeIf(entry -> entry.getValue().isExpired());
+        insertionOrder.removeIf(queued -> !isCurrent(queued, entries.get(queued.key)));
+    }
+    
+    // SHA-256 of the request as JSON; the bound DTO serializes its fields in a fixed order
+    private byte[] requestHash(Object request) {
+        try {
+            byte[] json = objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return MessageDigest.getInstance("SHA-256").digest(json);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to hash request for idempotency check", e);
+        }
+    }
+    
+    private Object await(Entry entry) {
+        try {
+            return entry.result.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Original request is still in progress, please retry later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for original request");
+        }
+    }
+    
+    private void evictOverflow() {
+        while (entries.size() > maxEntries) {
+            QueuedKey oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            Entry entry = entries.get(oldest.key);
+            if (!isCurrent(oldest, entry)) {
+                continue;
+            }
+            // Never evict an in-flight request, its duplicates are waiting on it
+            if (entry.result.isDone()) {
+                entries.remove(oldest.key, entry);
+            } else {
+                insertionOrder.add(oldest);
+                return;
+            }
+        }
+    }
+    
+    private static boolean isCurrent(QueuedKey queued, Entry entry) {
+        return entry != null && entry.sequence == queued.sequence;
+    }
+    
+    private record QueuedKey(String key, long sequence) {
+    }
+    
+    private static class Entry {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final byte[] requestHash;
+        private final long expiresAt;
+        private final long sequence;
+        
+        Entry(byte[] requestHash, long expiresAt, long sequence) {
+            this.requestHash = requestHash;
+            this.expiresAt = expiresAt;
+            this.sequence = sequence;
+        }
+        
+        boolean isExpired() {
+            return result.isDone() && System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.tabletop.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Orders the rebuild of an in-memory index against the writes that keep it current, using
+ * the index's read-write lock. The rebuild reads its snapshot and publishes it under the
+ * write side; updates take the same lock, so one that arrives meanwhile waits and is
+ * applied on top of the published snapshot instead of being lost.
+ */
+@Component
+public class IndexRebuildSupport {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Runs the load in one read-only transaction, holding the write lock. The connection is
+     * taken before the lock, so writers that wait on the lock while holding pooled
+     * connections cannot starve the rebuild.
+     */
+    public void rebuild(ReadWriteLock lock, Runnable loadAndPublish) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(tx -> {
+            DataSourceUtils.getConnection(dataSource);
+            lock.writeLock().lock();
+            try {
+                loadAndPublish.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * For indexes that count changes: holds the read side until the current transaction
+     * completes, after its after-commit updates have run. A rebuild then either sees the
+     * transaction committed in its snapshot or runs before it commits, never both.
+     */
+    public void holdUntilTransactionCompletes(ReadWriteLock lock) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        lock.readLock().lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.readLock().unlock();
+            }
+        });
+    }
+}
@@ -0,0 +1,49 @@
+package com.tabletop.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes entities streamed from a server-side cursor as newline-delimited JSON. The
+ * persistence context is cleared as rows are written, so memory use does not grow with
+ * the number of rows. Callers run it inside a read-only transaction; the stream is
+ * closed once it has been written.
+ */
+@Component
+public class NdjsonExporter {
+    
+    private static final int CLEAR_INTERVAL = 500;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    public <T> void export(Stream<T> rows, Function<T, ?> toDTO, OutputStream out) {
+        try (rows) {
+            int written = 0;
+            for (Iterator<T> iterator = rows.iterator(); iterator.hasNext(); ) {
+                out.write(objectMapper.writeValueAsBytes(toDTO.apply(iterator.next())));
+                out.write('\n');
+                if (++written % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
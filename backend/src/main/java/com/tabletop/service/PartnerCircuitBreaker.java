@@ -0,0 +1,196 @@
+package com.tabletop.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Circuit breaker per partner restaurant API, keyed by restaurant ID. Tracks the outcome
+ * and latency of the last calls in a sliding window; once too many fail or run slow the
+ * circuit opens and calls fail fast until a few half-open trial calls succeed again.
+ * Circuits whose open period has passed are moved to half-open by a periodic sweep,
+ * which bumps the catalog version so restaurants stop being shown as unbookable.
+ */
+@Component
+public class PartnerCircuitBreaker {
+    
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+    
+    @Autowired
+    private CatalogVersion catalogVersion;
+    
+    @Value("${partner.circuit.window-size:20}")
+    private int windowSize;
+    
+    @Value("${partner.circuit.minimum-calls:5}")
+    private int minimumCalls;
+    
+    @Value("${partner.circuit.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+    
+    @Value("${partner.circuit.slow-call-ms:3000}")
+    private long slowCallMs;
+    
+    @Value("${partner.circuit.slow-call-rate-threshold:80}")
+    private int slowCallRateThreshold;
+    
+    @Value("${partner.circuit.open-duration-ms:30000}")
+    private long openDurationMs;
+    
+    @Value("${partner.circuit.half-open-calls:3}")
+    private int halfOpenCalls;
+    
+    private final Map<Long, Circuit> circuits = new ConcurrentHashMap<>();
+    
+    public boolean tryAcquirePermission(Long restaurantId) {
+        return circuit(restaurantId).tryAcquirePermission();
+    }
+    
+    public void recordSuccess(Long restaurantId, long latencyMs) {
+        circuit(restaurantId).record(false, latencyMs);
+    }
+    
+    public void recordFailure(Long restaurantId, long latencyMs) {
+        circuit(restaurantId).record(true, latencyMs);
+    }
+    
+    // Read-only check used to flag restaurants as temporarily unbookable
+    public boolean isCallPermitted(Long restaurantId) {
+        Circuit circuit = circuits.get(restaurantId);
+        return circuit == null || circuit.isCallPermitted();
+    }
+    
+    @Scheduled(fixedDelayString = "${partner.circuit.sweep-interval-ms:1000}")
+    public void halfOpenExpiredCircuits() {
+        circuits.values().forEach(Circuit::halfOpenIfExpired);
+    }
+    
+    public Map<Long, Map<String, Object>> getCircuitStates() {
+        Map<Long, Map<String, Object>> states = new TreeMap<>();
+        circuits.forEach((restaurantId, circuit) -> states.put(restaurantId, circuit.snapshot()));
+        return states;
+    }
+    
+    private Circuit circuit(Long restaurantId) {
+        return circuits.computeIfAbsent(restaurantId, id -> new Circuit());
+    }
+    
+    private class Circuit {
+        private State state = State.CLOSED;
+        private final boolean[] failures = new boolean[windowSize];
+        private final boolean[] slowCalls = new boolean[windowSize];
+        private final long[] latencies = new long[windowSize];
+        private int next = 0;
+        private int recorded = 0;
+        private int failureCount = 0;
+        private int slowCount = 0;
+        private long latencySum = 0;
+        private long openedAt = 0;
+        private int halfOpenInFlight = 0;
+        private int halfOpenSuccesses = 0;
+        
+        synchronized boolean tryAcquirePermission() {
+            halfOpenIfExpired();
+            if (state == State.OPEN) {
+                return false;
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenInFlight >= halfOpenCalls) {
+                    return false;
+                }
+                halfOpenInFlight++;
+            }
+            return true;
+        }
+        
+        synchronized boolean isCallPermitted() {
+            return state != State.OPEN;
+        }
+        
+        synchronized void halfOpenIfExpired() {
+            if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openDurationMs) {
+                state = State.HALF_OPEN;
+                halfOpenInFlight = 0;
+                halfOpenSuccesses = 0;
+                catalogVersion.bump();
+            }
+        }
+        
+        synchronized void record(boolean failed, long latencyMs) {
+            boolean slow = latencyMs >= slowCallMs;
+            
+            if (state == State.HALF_OPEN) {
+                if (failed || slow) {
+                    open();
+                } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                    close();
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                return;
+            }
+            
+            if (recorded == windowSize) {
+                failureCount -= failures[next] ? 1 : 0;
+                slowCount -= slowCalls[next] ? 1 : 0;
+                latencySum -= latencies[next];
+            } else {
+                recorded++;
+            }
+            failures[next] = failed;
+            slowCalls[next] = slow;
+            latencies[next] = latencyMs;
+            failureCount += failed ? 1 : 0;
+            slowCount += slow ? 1 : 0;
+            latencySum += latencyMs;
+            next = (next + 1) % windowSize;
+            
+            if (recorded >= minimumCalls
+                    && (failureCount * 100 >= failureRateThreshold * recorded
+                        || slowCount * 100 >= slowCallRateThreshold * recorded)) {
+                open();
+            }
+        }
+        
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("state", state);
+            snapshot.put("calls", recorded);
+            snapshot.put("failureRate", recorded == 0 ? 0 : failureCount * 100 / recorded);
+            snapshot.put("slowCallRate", recorded == 0 ? 0 : slowCount * 100 / recorded);
+            snapshot.put("averageLatencyMs", recorded == 0 ? 0 : latencySum / recorded);
+            return snapshot;
+        }
+        
+        // Open circuits mark restaurants as temporarily unbookable in the catalog
+        private void open() {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+            resetWindow();
+            catalogVersion.bump();
+        }
+        
+        private void close() {
+            state = State.CLOSED;
+            resetWindow();
+            catalogVersion.bump();
+        }
+        
+        private void resetWindow() {
+            next = 0;
+            recorded = 0;
+            failureCount = 0;
+            slowCount = 0;
+            latencySum = 0;
+        }
+    }
+}
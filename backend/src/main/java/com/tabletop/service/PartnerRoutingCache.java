@@ -0,0 +1,122 @@
+package com.tabletop.service;
+
+import com.tabletop.entity.Restaurant;
+import com.tabletop.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-through cache of partner routing metadata keyed by restaurant ID, so the booking
+ * path never reloads a restaurant just to find out where and how to call it. Method and
+ * read timeout default per platform and can be overridden per restaurant through
+ * partner.routes.{restaurantId}.method and partner.routes.{restaurantId}.read-timeout-ms.
+ */
+@Component
+public class PartnerRoutingCache {
+    
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    
+    @Autowired
+    private Environment environment;
+    
+    private final Map<Long, PartnerRoute> routes = new ConcurrentHashMap<>();
+    
+    private final Map<String, PartnerRoute> routesByUrl = new ConcurrentHashMap<>();
+    
+    public PartnerRoute getRoute(Long restaurantId) {
+        PartnerRoute route = routes.get(restaurantId);
+        if (route != null) {
+            return route;
+        }
+        
+        Restaurant restaurant = restaurantRepository.findById(restaurantId)
+                .orElseThrow(() -> new RuntimeException("Restaurant not found"));
+        route = toRoute(restaurant);
+        routes.put(restaurantId, route);
+        if (route.getUrl() != null) {
+            routesByUrl.put(route.getUrl(), route);
+        }
+        return route;
+    }
+    
+    public Optional<PartnerRoute> findByUrl(String url) {
+        return Optional.ofNullable(routesByUrl.get(url));
+    }
+    
+    public void invalidate(Long restaurantId) {
+        PartnerRoute route = routes.remove(restaurantId);
+        if (route != null && route.getUrl() != null) {
+            routesByUrl.remove(route.getUrl(), route);
+        }
+    }
+    
+    private PartnerRoute toRoute(Restaurant restaurant) {
+        String prefix = "partner.routes." + restaurant.getId() + ".";
+        String url = restaurant.getBookingApiUrl();
+        String secretKey = restaurant.getSecretKey();
+        return new PartnerRoute(
+            restaurant.getId(),
+            restaurant.getName(),
+            restaurant.getCapacity(),
+            url == null || url.trim().isEmpty() ? null : url.trim(),
+            secretKey == null || secretKey.trim().isEmpty() ? null : secretKey,
+            environment.getProperty(prefix + "method", "POST"),
+            environment.getProperty(prefix + "read-timeout-ms", Long.class)
+        );
+    }
+    
+    public static class PartnerRoute {
+        private final Long restaurantId;
+        private final String restaurantName;
+        private final Integer capacity;
+        private final String url;
+        private final String secretKey;
+        private final String method;
+        private final Long readTimeoutMs;
+        
+        public PartnerRoute(Long restaurantId, String restaurantName, Integer capacity, String url, 
+                            String secretKey, String method, Long readTimeoutMs) {
+            this.restaurantId = restaurantId;
+            this.restaurantName = restaurantName;
+            this.capacity = capacity;
+            this.url = url;
+            this.secretKey = secretKey;
+            this.method = method;
+            this.readTimeoutMs = readTimeoutMs;
+        }
+        
+        public Long getRestaurantId() {
+            return restaurantId;
+        }
+        
+        public String getRestaurantName() {
+            return restaurantName;
+        }
+        
+        public Integer getCapacity() {
+            return capacity;
+        }
+        
+        public String getUrl() {
+            return url;
+        }
+        
+        public String getSecretKey() {
+            return secretKey;
+        }
+        
+        public String getMethod() {
+            return method;
+        }
+        
+        public Long getReadTimeoutMs() {
+            return readTimeoutMs;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.tabletop.service;
+
+import com.tabletop.repository.ReviewRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-restaurant review rating histogram in half-star buckets, with the running count and
+ * rating sum, so the distribution and the live average of a restaurant are O(1) reads.
+ * Built once at startup and then adjusted by every committed review write; the rebuild
+ * swaps in a fresh map, and review transactions hold it off until their events have run.
+ */
+@Component
+public class RatingHistogramIndex {
+
+    private static final int BUCKETS = 11; // 0.0, 0.5, ... 5.0
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private IndexRebuildSupport rebuildSupport;
+
+    private volatile Map<Long, Histogram> histograms = new ConcurrentHashMap<>();
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildSupport.rebuild(rebuildLock, () -> {
+            Map<Long, Histogram> loaded = new ConcurrentHashMap<>();
+            for (Object[] row : reviewRepository.countReviewsGroupedByRestaurantAndRating()) {
+                histogram(loaded, (Long) row[0]).add((BigDecimal) row[1], (Long) row[2]);
+            }
+            histograms = loaded;
+            ready = true;
+        });
+    }
+
+    /**
+     * Keeps the rebuild from reading its snapshot until the current transaction completes.
+     * Call it before the review write whose event this index counts commits.
+     */
+    public void holdRebuildUntilTransactionCompletes() {
+        rebuildSupport.holdUntilTransactionCompletes(rebuildLock);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void onReviewAdded(Long restaurantId, BigDecimal rating) {
+        rebuildLock.readLock().lock();
+        try {
+            histogram(histograms, restaurantId).add(rating, 1);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public void onReviewChanged(Long restaurantId, BigDecimal previousRating, BigDecimal newRating) {
+        rebuildLock.readLock().lock();
+        try {
+            Histogram histogram = histogram(histograms, restaurantId);
+            synchronized (histogram) {
+                histogram.add(previousRating, -1);
+                histogram.add(newRating, 1);
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public void onReviewRemoved(Long restaurantId, BigDecimal rating) {
+        rebuildLock.readLock().lock();
+        try {
+            histogram(histograms, restaurantId).add(rating, -1);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Snapshot for one restaurant; before the index is built it is computed from the database.
+     */
+    public Summary getSummary(Long restaurantId) {
+        Histogram histogram;
+        if (ready) {
+            histogram = histograms.get(restaurantId);
+            if (histogram == null) {
+                histogram = new Histogram();
+            }
+        } else {
+            histogram = new Histogram();
+            for (Object[] row : reviewRepository.countReviewsByRatingForRestaurant(restaurantId)) {
+                histogram.add((BigDecimal) row[0], (Long) row[1]);
+            }
+        }
+        return histogram.summary();
+    }
+
+    private Histogram histogram(Map<Long, Histogram> entries, Long restaurantId) {
+        return entries.computeIfAbsent(restaurantId, id -> new Histogram());
+    }
+
+    private static int bucket(BigDecimal rating) {
+        int bucket = rating.multiply(BigDecimal.valueOf(2)).intValue();
+        return Math.max(0, Math.min(BUCKETS - 1, bucket));
+    }
+
+    // Ratings are summed in hundredths of a star so the running sum stays exact
+    private static long hundredths(BigDecimal rating) {
+        return rating.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static class Histogram {
+        private final long[] counts = new long[BUCKETS];
+        private long count;
+        private long sumHundredths;
+
+        synchronized void add(BigDecimal rating, long delta) {
+            if (rating == null) {
+                return;
+            }
+            int bucket = bucket(rating);
+            counts[bucket] += delta;
+            count += delta;
+            sumHundredths += delta * hundredths(rating);
+        }
+
+        synchronized Summary summary() {
+            Map<String, Long> distribution = new LinkedHashMap<>();
+            for (int bucket = BUCKETS - 1; bucket >= 0; bucket--) {
+                distribution.put(String.valueOf(bucket / 2.0), counts[bucket]);
+            }
+            BigDecimal sum = BigDecimal.valueOf(sumHundredths, 2);
+            BigDecimal average = count == 0 ? BigDecimal.ZERO
+                    : sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+            return new Summary(count, sum, average, distribution);
+        }
+    }
+
+    public static class Summary {
+        private final long reviewCount;
+        private final BigDecimal ratingSum;
+        private final BigDecimal averageRating;
+        private final Map<String, Long> histogram;
+
+        Summary(long reviewCount, BigDecimal ratingSum, BigDecimal averageRating, Map<String, Long> histogram) {
+            this.reviewCount = reviewCount;
+            this.ratingSum = ratingSum;
+            this.averageRating = averageRating;
+            this.histogram = histogram;
+        }
+
+        public long getReviewCount() { return reviewCount; }
+        public BigDecimal getRatingSum() { return ratingSum; }
+        public BigDecimal getAverageRating() { return averageRating; }
+        public Map<String, Long> getHistogram() { return histogram; }
+    }
+}
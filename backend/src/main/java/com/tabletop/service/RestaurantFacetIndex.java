@@ -0,0 +1,319 @@
+package com.tabletop.service;
+
+import com.tabletop.entity.Restaurant;
+import com.tabletop.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Faceted filter over the restaurant catalog. Every restaurant gets a dense position and
+ * each city, cuisine and half-star rating bucket keeps a bitset of positions, so a filter
+ * combination resolves to a few bitset unions and intersections. City and cuisine filters
+ * keep the substring, case-insensitive semantics of the SQL filter by OR-ing the bitsets
+ * of every matching value.
+ */
+@Component
+public class RestaurantFacetIndex {
+
+    private static final int RATING_BUCKETS = 11; // 0.0, 0.5, ... 5.0
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private IndexRebuildSupport rebuildSupport;
+
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private final BitSet present = new BitSet();
+    private final BitSet active = new BitSet();
+    private final Map<String, Facet> cities = new HashMap<>();
+    private final Map<String, Facet> cuisines = new HashMap<>();
+    private final BitSet[] ratingBuckets = new BitSet[RATING_BUCKETS];
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready = false;
+
+    public RestaurantFacetIndex() {
+        for (int i = 0; i < RATING_BUCKETS; i++) {
+            ratingBuckets[i] = new BitSet();
+        }
+    }
+
+    // The read runs under the write lock, so a restaurant indexed meanwhile waits and is applied on top
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildSupport.rebuild(lock, () -> {
+            List<Restaurant> restaurants = restaurantRepository.findAll();
+            restaurants.sort(Comparator.comparing(Restaurant::getId));
+
+            positions.clear();
+            entries.clear();
+            present.clear();
+            active.clear();
+            cities.clear();
+            cuisines.clear();
+            for (BitSet bucket : ratingBuckets) {
+                bucket.clear();
+            }
+            for (Restaurant restaurant : restaurants) {
+                add(restaurant);
+            }
+            ready = true;
+        });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds a restaurant or replaces its facet values; it keeps its position.
+     */
+    public void index(Restaurant restaurant) {
+        lock.writeLock().lock();
+        try {
+            Integer position = positions.get(restaurant.getId());
+            if (position != null) {
+                remove(position);
+            }
+            add(restaurant);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of matching restaurants greater than {@code afterId}, in id order, at most {@code limit}.
+     * A null {@code isActive} means active restaurants only.
+     */
+    public List<Long> filterIds(String city, String cuisine, BigDecimal minRating, Boolean isActive,
+                                long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = status(isActive);
+            matches.and(values(cities, city));
+            matches.and(values(cuisines, cuisine));
+            matches.and(ratingAtLeast(minRating));
+
+            List<Long> ids = new ArrayList<>();
+            for (int position = matches.nextSetBit(0); position >= 0; position = matches.nextSetBit(position + 1)) {
+                Long id = entries.get(position).id;
+                if (id > afterId) {
+                    ids.add(id);
+                }
+            }
+            ids.sort(Comparator.naturalOrder());
+            return ids.size() > limit ? new ArrayList<>(ids.subList(0, limit)) : ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Match count plus per-value counts for each facet. Each facet's counts apply every
+     * filter except its own, so the chips for alternative values stay populated.
+     */
+    public FacetCounts count(String city, String cuisine, BigDecimal minRating, Boolean isActive) {
+        lock.readLock().lock();
+        try {
+            BitSet base = status(isActive);
+            BitSet byCity = values(cities, city);
+            BitSet byCuisine = values(cuisines, cuisine);
+            BitSet byRating = ratingAtLeast(minRating);
+
+            FacetCounts counts = new FacetCounts();
+            counts.total = intersect(base, byCity, byCuisine, byRating).cardinality();
+
+            BitSet withoutCity = intersect(base, byCuisine, byRating);
+            for (Facet facet : sortedByName(cities)) {
+                int count = intersect(withoutCity, facet.positions).cardinality();
+                if (count > 0) {
+                    counts.cities.put(facet.name, (long) count);
+                }
+            }
+
+            BitSet withoutCuisine = intersect(base, byCity, byRating);
+            for (Facet facet : sortedByName(cuisines)) {
+                int count = intersect(withoutCuisine, facet.positions).cardinality();
+                if (count > 0) {
+                    counts.cuisines.put(facet.name, (long) count);
+                }
+            }
+
+            BitSet withoutRating = intersect(base, byCity, byCuisine);
+            for (int bucket = RATING_BUCKETS - 1; bucket >= 0; bucket--) {
+                int count = intersect(withoutRating, ratingBuckets[bucket]).cardinality();
+                if (count > 0) {
+                    counts.ratings.put(String.valueOf(bucket / 2.0), (long) count);
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Restaurant restaurant) {
+        Integer position = positions.get(restaurant.getId());
+        if (position == null) {
+            position = entries.size();
+            positions.put(restaurant.getId(), position);
+            entries.add(null);
+        }
+
+        Entry entry = new Entry(restaurant.getId(), key(restaurant.getCity()), key(restaurant.getCuisine()),
+                restaurant.getRating());
+        entries.set(position, entry);
+        present.set(position);
+        if (Boolean.TRUE.equals(restaurant.getIsActive())) {
+            active.set(position);
+        }
+        if (entry.city != null) {
+            cities.computeIfAbsent(entry.city, k -> new Facet(restaurant.getCity().trim())).positions.set(position);
+        }
+        if (entry.cuisine != null) {
+            cuisines.computeIfAbsent(entry.cuisine, k -> new Facet(restaurant.getCuisine().trim())).positions.set(position);
+        }
+        if (entry.rating != null) {
+            ratingBuckets[bucket(entry.rating)].set(position);
+        }
+    }
+
+    private void remove(int position) {
+        Entry entry = entries.get(position);
+        present.clear(position);
+        active.clear(position);
+        clearFacet(cities, entry.city, position);
+        clearFacet(cuisines, entry.cuisine, position);
+        if (entry.rating != null) {
+            ratingBuckets[bucket(entry.rating)].clear(position);
+        }
+    }
+
+    private void clearFacet(Map<String, Facet> facets, String key, int position) {
+        if (key == null) {
+            return;
+        }
+        Facet facet = facets.get(key);
+        facet.positions.clear(position);
+        if (facet.positions.isEmpty()) {
+            facets.remove(key);
+        }
+    }
+
+    private BitSet status(Boolean isActive) {
+        BitSet result = (BitSet) present.clone();
+        if (Boolean.FALSE.equals(isActive)) {
+            result.andNot(active);
+        } else {
+            result.and(active);
+        }
+        return result;
+    }
+
+    // Union of every facet value containing the filter text; everything when there is no filter
+    private BitSet values(Map<String, Facet> facets, String filter) {
+        if (filter == null) {
+            return (BitSet) present.clone();
+        }
+        String needle = filter.trim().toLowerCase(Locale.ROOT);
+        BitSet result = new BitSet();
+        for (Map.Entry<String, Facet> facet : facets.entrySet()) {
+            if (facet.getKey().contains(needle)) {
+                result.or(facet.getValue().positions);
+            }
+        }
+        return result;
+    }
+
+    private BitSet ratingAtLeast(BigDecimal minRating) {
+        if (minRating == null) {
+            return (BitSet) present.clone();
+        }
+        BitSet result = new BitSet();
+        int boundary = bucket(minRating.max(BigDecimal.ZERO).min(BigDecimal.valueOf(5)));
+        for (int bucket = boundary + 1; bucket < RATING_BUCKETS; bucket++) {
+            result.or(ratingBuckets[bucket]);
+        }
+        // Only the bucket the minimum falls in needs its ratings checked one by one
+        BitSet partial = ratingBuckets[boundary];
+        for (int position = partial.nextSetBit(0); position >= 0; position = partial.nextSetBit(position + 1)) {
+            if (entries.get(position).rating.compareTo(minRating) >= 0) {
+                result.set(position);
+            }
+        }
+        return result;
+    }
+
+    private BitSet intersect(BitSet first, BitSet... others) {
+        BitSet result = (BitSet) first.clone();
+        for (BitSet other : others) {
+            result.and(other);
+        }
+        return result;
+    }
+
+    private List<Facet> sortedByName(Map<String, Facet> facets) {
+        return new TreeMap<>(facets).values().stream().toList();
+    }
+
+    private int bucket(BigDecimal rating) {
+        int bucket = rating.multiply(BigDecimal.valueOf(2)).intValue();
+        return Math.max(0, Math.min(RATING_BUCKETS - 1, bucket));
+    }
+
+    private String key(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static class FacetCounts {
+        private long total;
+        private final Map<String, Long> cities = new LinkedHashMap<>();
+        private final Map<String, Long> cuisines = new LinkedHashMap<>();
+        private final Map<String, Long> ratings = new LinkedHashMap<>();
+
+        public long getTotal() { return total; }
+        public Map<String, Long> getCities() { return cities; }
+        public Map<String, Long> getCuisines() { return cuisines; }
+        public Map<String, Long> getRatings() { return ratings; }
+    }
+
+    private static class Facet {
+        private final String name;
+        private final BitSet positions = new BitSet();
+
+        Facet(String name) {
+            this.name = name;
+        }
+    }
+
+    private static class Entry {
+        private final Long id;
+        private final String city;
+        private final String cuisine;
+        private final BigDecimal rating;
+
+        Entry(Long id, String city, String cuisine, BigDecimal rating) {
+            this.id = id;
+            this.city = city;
+            this.cuisine = cuisine;
+            this.rating = rating;
+        }
+    }
+}
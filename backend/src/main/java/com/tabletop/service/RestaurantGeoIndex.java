@@ -0,0 +1,242 @@
+package com.tabletop.service;
+
+import com.tabletop.entity.Restaurant;
+import com.tabletop.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Grid spatial index of active restaurants with coordinates. Positions are bucketed into
+ * fixed-size latitude/longitude cells; a nearby search walks rings of cells outward from
+ * the query point and stops once no unvisited cell can hold anything closer than what
+ * has been found, or the radius is exhausted.
+ */
+@Component
+public class RestaurantGeoIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private IndexRebuildSupport rebuildSupport;
+
+    @Value("${geo.cell-degrees:0.1}")
+    private double cellDegrees;
+
+    // Replaced as a whole by a rebuild; searches read them without locking
+    private volatile Map<Long, Point> points = new ConcurrentHashMap<>();
+    private volatile Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready = false;
+
+    // Fresh maps are filled and swapped in under the write lock, so a restaurant indexed
+    // meanwhile waits and is applied on top of the new snapshot
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildSupport.rebuild(lock, () -> {
+            points = new ConcurrentHashMap<>();
+            cells = new ConcurrentHashMap<>();
+            for (Restaurant restaurant : restaurantRepository.findByIsActiveTrue()) {
+                index(restaurant);
+            }
+            ready = true;
+        });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds, moves or removes a restaurant; inactive ones and ones without coordinates are removed.
+     */
+    public void index(Restaurant restaurant) {
+        lock.writeLock().lock();
+        try {
+            remove(restaurant.getId());
+            if (!Boolean.TRUE.equals(restaurant.getIsActive())
+                    || restaurant.getLatitude() == null || restaurant.getLongitude() == null) {
+                return;
+            }
+
+            Point point = new Point(restaurant.getId(), restaurant.getLatitude(), restaurant.getLongitude(),
+                    restaurant.getCuisine() == null ? null : restaurant.getCuisine().toLowerCase(Locale.ROOT),
+                    restaurant.getRating());
+            points.put(point.restaurantId, point);
+            cells.computeIfAbsent(cellKey(row(point.latitude), column(point.longitude)),
+                    key -> ConcurrentHashMap.newKeySet()).add(point.restaurantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long restaurantId) {
+        lock.writeLock().lock();
+        try {
+            Point point = points.remove(restaurantId);
+            if (point == null) {
+                return;
+            }
+            long key = cellKey(row(point.latitude), column(point.longitude));
+            Set<Long> cell = cells.get(key);
+            if (cell != null) {
+                cell.remove(restaurantId);
+                if (cell.isEmpty()) {
+                    cells.remove(key);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} restaurants within {@code radiusKm}, nearest first, optionally
+     * restricted to a cuisine (case-insensitive substring) and a minimum rating.
+     */
+    public List<Nearby> findNearby(double latitude, double longitude, double radiusKm, int limit,
+                                   String cuisine, BigDecimal minRating) {
+        String cuisineFilter = cuisine == null ? null : cuisine.trim().toLowerCase(Locale.ROOT);
+        int centerRow = row(latitude);
+        int centerColumn = column(longitude);
+        int rows = rowCount();
+        int columns = columnCount();
+
+        // A cell ring this far out is at least this close in the narrowest (east-west) direction
+        double ringWidthKm = cellDegrees * KM_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(
+                Math.min(90.0, Math.abs(latitude) + cellDegrees))));
+        int maxRing = (int) Math.min(Math.max(rows, columns), Math.ceil(radiusKm / ringWidthKm) + 1);
+
+        List<Nearby> found = new ArrayList<>();
+        Set<Long> visited = new HashSet<>();
+        for (int ring = 0; ring <= maxRing; ring++) {
+            double ringMinKm = Math.max(0, ring - 1) * ringWidthKm;
+            if (ringMinKm > radiusKm) {
+                break;
+            }
+            if (found.size() >= limit && found.get(limit - 1).distanceKm <= ringMinKm) {
+                break;
+            }
+
+            for (int dr = -ring; dr <= ring; dr++) {
+                int cellRow = centerRow + dr;
+                if (cellRow < 0 || cellRow >= rows) {
+                    continue;
+                }
+                boolean edgeRow = Math.abs(dr) == ring;
+                for (int dc = -ring; dc <= ring; dc += edgeRow ? 1 : 2 * Math.max(1, ring)) {
+                    long key = cellKey(cellRow, Math.floorMod(centerColumn + dc, columns));
+                    // Columns wrap at the antimeridian, so a wide ring can revisit a cell
+                    if (!visited.add(key)) {
+                        continue;
+                    }
+                    collect(key, latitude, longitude, radiusKm, cuisineFilter, minRating, found);
+                }
+            }
+            found.sort(Comparator.comparingDouble((Nearby nearby) -> nearby.distanceKm)
+                    .thenComparing(nearby -> nearby.restaurantId));
+        }
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    private void collect(long key, double latitude, double longitude, double radiusKm,
+                         String cuisineFilter, BigDecimal minRating, List<Nearby> found) {
+        Set<Long> cell = cells.get(key);
+        if (cell == null) {
+            return;
+        }
+        for (Long restaurantId : cell) {
+            Point point = points.get(restaurantId);
+            if (point == null) {
+                continue;
+            }
+            if (cuisineFilter != null && (point.cuisine == null || !point.cuisine.contains(cuisineFilter))) {
+                continue;
+            }
+            if (minRating != null && (point.rating == null || point.rating.compareTo(minRating) < 0)) {
+                continue;
+            }
+            double distanceKm = haversineKm(latitude, longitude, point.latitude, point.longitude);
+            if (distanceKm <= radiusKm) {
+                found.add(new Nearby(restaurantId, distanceKm));
+            }
+        }
+    }
+
+    private int row(double latitude) {
+        return Math.min(rowCount() - 1, (int) Math.floor((latitude + 90.0) / cellDegrees));
+    }
+
+    private int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180.0) / cellDegrees), columnCount());
+    }
+
+    private int rowCount() {
+        return (int) Math.ceil(180.0 / cellDegrees);
+    }
+
+    private int columnCount() {
+        return (int) Math.ceil(360.0 / cellDegrees);
+    }
+
+    private long cellKey(int row, int column) {
+        return (long) row * columnCount() + column;
+    }
+
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    public static class Nearby {
+        private final Long restaurantId;
+        private final double distanceKm;
+
+        Nearby(Long restaurantId, double distanceKm) {
+            this.restaurantId = restaurantId;
+            this.distanceKm = distanceKm;
+        }
+
+        public Long getRestaurantId() { return restaurantId; }
+        public double getDistanceKm() { return distanceKm; }
+    }
+
+    private static class Point {
+        private final Long restaurantId;
+        private final double latitude;
+        private final double longitude;
+        private final String cuisine;
+        private final BigDecimal rating;
+
+        Point(Long restaurantId, double latitude, double longitude, String cuisine, BigDecimal rating) {
+            this.restaurantId = restaurantId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cuisine = cuisine;
+            this.rating = rating;
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.tabletop.service;
+
+import com.tabletop.entity.Restaurant;
+import com.tabletop.repository.BookingRepository;
+import com.tabletop.repository.RestaurantRepository;
+import com.tabletop.repository.ReviewRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "Most booked" and "top rated" leaderboards kept up to date by booking and review events.
+ * Confirmed bookings are counted per restaurant in hourly ring buckets covering the
+ * longest window; each window and the rating board keep a bounded top-K list that events
+ * update in place and a periodic refresh rebuilds with a size-K heap, so reads are O(K).
+ * <p>
+ * The startup rebuild loads fresh entries and swaps them in under a lock that every event
+ * also takes. Booking and review transactions hold it until they complete, so each change
+ * is counted once: in the snapshot or on top of it.
+ */
+@Component
+public class RestaurantLeaderboards {
+
+    private static final int RING_HOURS = 30 * 24;
+
+    // Weight, in reviews, of the curated rating when blending it with review ratings
+    private static final double CURATED_RATING_WEIGHT = 5.0;
+
+    public enum Window {
+        LAST_24_HOURS("24h", 24),
+        LAST_7_DAYS("7d", 7 * 24),
+        LAST_30_DAYS("30d", 30 * 24);
+
+        private final String code;
+        private final int hours;
+
+        Window(String code, int hours) {
+            this.code = code;
+            this.hours = hours;
+        }
+
+        public static Window fromCode(String code) {
+            for (Window window : values()) {
+                if (window.code.equalsIgnoreCase(code)) {
+                    return window;
+                }
+            }
+            throw new RuntimeException("Unknown window: " + code + " (expected 24h, 7d or 30d)");
+        }
+    }
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private IndexRebuildSupport rebuildSupport;
+
+    @Value("${leaderboard.size:50}")
+    private int size;
+
+    private volatile Map<Long, RestaurantEntry> restaurants = new ConcurrentHashMap<>();
+    private final Map<Window, Board> mostBooked = new EnumMap<>(Window.class);
+    private final Board topRated = new Board();
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready = false;
+
+    public RestaurantLeaderboards() {
+        for (Window window : Window.values()) {
+            mostBooked.put(window, new Board());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildSupport.rebuild(rebuildLock, this::load);
+    }
+
+    private void load() {
+        Map<Long, RestaurantEntry> loaded = new ConcurrentHashMap<>();
+        for (Object[] row : restaurantRepository.findAllRatingsAndStatus()) {
+            RestaurantEntry entry = entry(loaded, (Long) row[0]);
+            entry.curatedRating = (BigDecimal) row[1];
+            entry.active = Boolean.TRUE.equals(row[2]);
+        }
+        for (Object[] row : reviewRepository.summarizeReviewsGroupedByRestaurant()) {
+            RestaurantEntry entry = entry(loaded, (Long) row[0]);
+            entry.reviewCount = (Long) row[1];
+            entry.ratingSum = row[2] == null ? 0.0 : ((BigDecimal) row[2]).doubleValue();
+        }
+        for (Object[] row : bookingRepository.findConfirmedBookingTimesFrom(
+                LocalDateTime.now().minusHours(RING_HOURS))) {
+            entry(loaded, (Long) row[0]).bookings.add(toHour((LocalDateTime) row[1]), 1);
+        }
+
+        restaurants = loaded;
+        refresh();
+        topRated.replace(selectTop(RestaurantEntry::ratingScore));
+        ready = true;
+    }
+
+    /**
+     * Keeps the rebuild from reading its snapshot until the current transaction completes.
+     * Call it before changing the bookings or reviews whose events this index counts.
+     */
+    public void holdRebuildUntilTransactionCompletes() {
+        rebuildSupport.holdUntilTransactionCompletes(rebuildLock);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<Long> getMostBooked(Window window, int limit) {
+        return mostBooked.get(window).top(Math.min(limit, size));
+    }
+
+    public List<Long> getTopRated(int limit) {
+        return topRated.top(Math.min(limit, size));
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void onRestaurantChanged(Restaurant restaurant) {
+        rebuildLock.readLock().lock();
+        try {
+            RestaurantEntry entry = entry(restaurants, restaurant.getId());
+            double previousScore = entry.ratingScore();
+            entry.curatedRating = restaurant.getRating();
+            entry.active = Boolean.TRUE.equals(restaurant.getIsActive());
+
+            if (!entry.active) {
+                topRated.remove(restaurant.getId());
+                mostBooked.values().forEach(board -> board.remove(restaurant.getId()));
+                return;
+            }
+            updateTopRated(restaurant.getId(), entry, previousScore);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public void onBookingConfirmed(Long restaurantId, LocalDateTime bookedAt, int delta) {
+        rebuildLock.readLock().lock();
+        try {
+            RestaurantEntry entry = entry(restaurants, restaurantId);
+            entry.bookings.add(toHour(bookedAt), delta);
+            if (!entry.active) {
+                return;
+            }
+
+            // A lower count may let an off-board restaurant overtake; the next refresh settles that
+            long currentHour = toHour(LocalDateTime.now());
+            for (Map.Entry<Window, Board> board : mostBooked.entrySet()) {
+                board.getValue().offer(restaurantId, entry.bookings.sum(currentHour, board.getKey().hours));
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public void onReviewChanged(Long restaurantId, long countDelta, BigDecimal ratingDelta) {
+        rebuildLock.readLock().lock();
+        try {
+            RestaurantEntry entry = entry(restaurants, restaurantId);
+            double previousScore;
+            synchronized (entry) {
+                previousScore = entry.ratingScore();
+                entry.reviewCount += countDelta;
+                entry.ratingSum += ratingDelta.doubleValue();
+            }
+            if (entry.active) {
+                updateTopRated(restaurantId, entry, previousScore);
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    // Windows slide with the clock, so booking boards are rebuilt on every tick
+    @Scheduled(fixedDelayString = "${leaderboard.refresh-interval-ms:60000}")
+    public void refresh() {
+        long currentHour = toHour(LocalDateTime.now());
+        for (Map.Entry<Window, Board> board : mostBooked.entrySet()) {
+            int hours = board.getKey().hours;
+            board.getValue().replace(selectTop(entry -> (double) entry.bookings.sum(currentHour, hours)));
+        }
+        if (topRated.isStale()) {
+            topRated.replace(selectTop(RestaurantEntry::ratingScore));
+        }
+    }
+
+    private void updateTopRated(Long restaurantId, RestaurantEntry entry, double previousScore) {
+        double score = entry.ratingScore();
+        topRated.offer(restaurantId, score);
+        // A drop can leave the board ranking a restaurant above ones that are not on it
+        if (score < previousScore) {
+            topRated.markStale();
+        }
+    }
+
+    // Bounded min-heap over every active restaurant: O(N log K)
+    private List<Ranked> selectTop(ScoreFunction score) {
+        PriorityQueue<Ranked> heap = new PriorityQueue<>(Ranked.ORDER.reversed());
+        for (Map.Entry<Long, RestaurantEntry> entry : restaurants.entrySet()) {
+            if (!entry.getValue().active) {
+                continue;
+            }
+            double value = score.apply(entry.getValue());
+            if (value <= 0) {
+                continue;
+            }
+            heap.offer(new Ranked(entry.getKey(), value));
+            if (heap.size() > size) {
+                heap.poll();
+            }
+        }
+        List<Ranked> top = new ArrayList<>(heap);
+        top.sort(Ranked.ORDER);
+        return top;
+    }
+
+    private RestaurantEntry entry(Map<Long, RestaurantEntry> entries, Long restaurantId) {
+        return entries.computeIfAbsent(restaurantId, id -> new RestaurantEntry());
+    }
+
+    private long toHour(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 3600L);
+    }
+
+    private interface ScoreFunction {
+        double apply(RestaurantEntry entry);
+    }
+
+    private static class RestaurantEntry {
+        private volatile BigDecimal curatedRating;
+        private volatile boolean active = true;
+        private long reviewCount;
+        private double ratingSum;
+        private final HourlyRing bookings = new HourlyRing();
+
+        // Curated rating blended with review ratings, so a handful of reviews cannot dominate
+        synchronized double ratingScore() {
+            double prior = curatedRating == null ? 0.0 : curatedRating.doubleValue();
+            return (prior * CURATED_RATING_WEIGHT + ratingSum) / (CURATED_RATING_WEIGHT + reviewCount);
+        }
+    }
+
+    private static class HourlyRing {
+        private final long[] hours = new long[RING_HOURS];
+        private final int[] counts = new int[RING_HOURS];
+
+        synchronized void add(long hour, int delta) {
+            int slot = (int) Math.floorMod(hour, (long) RING_HOURS);
+            if (hours[slot] != hour) {
+                if (delta < 0 || hour < hours[slot]) {
+                    return; // the bucket has already rotated out
+                }
+                hours[slot] = hour;
+                counts[slot] = 0;
+            }
+            counts[slot] = Math.max(0, counts[slot] + delta);
+        }
+
+        synchronized long sum(long currentHour, int windowHours) {
+            long total = 0;
+            for (int slot = 0; slot < RING_HOURS; slot++) {
+                if (hours[slot] > currentHour - windowHours && hours[slot] <= currentHour) {
+                    total += counts[slot];
+                }
+            }
+            return total;
+        }
+    }
+
+    private static class Ranked {
+        private static final Comparator<Ranked> ORDER = Comparator.comparingDouble((Ranked ranked) -> ranked.score)
+                .reversed()
+                .thenComparing(ranked -> ranked.restaurantId);
+
+        private final Long restaurantId;
+        private final double score;
+
+        Ranked(Long restaurantId, double score) {
+            this.restaurantId = restaurantId;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Best-first list of at most {@code size} restaurants. Score changes are merged in place;
+     * changes that can let an off-board restaurant overtake mark the board stale until the
+     * next rebuild.
+     */
+    private class Board {
+        private volatile List<Ranked> entries = List.of();
+        private volatile boolean stale = false;
+
+        List<Long> top(int limit) {
+            List<Ranked> current = entries;
+            List<Long> ids = new ArrayList<>(Math.min(limit, current.size()));
+            for (int i = 0; i < current.size() && i < limit; i++) {
+                ids.add(current.get(i).restaurantId);
+            }
+            return ids;
+        }
+
+        synchronized void offer(Long restaurantId, double score) {
+            List<Ranked> updated = new ArrayList<>(entries);
+            updated.removeIf(ranked -> ranked.restaurantId.equals(restaurantId));
+            if (score > 0) {
+                updated.add(new Ranked(restaurantId, score));
+            }
+            updated.sort(Ranked.ORDER);
+            if (updated.size() > size) {
+                updated = updated.subList(0, size);
+            }
+            entries = List.copyOf(updated);
+        }
+
+        synchronized void remove(Long restaurantId) {
+            List<Ranked> updated = new ArrayList<>(entries);
+            if (updated.removeIf(ranked -> ranked.restaurantId.equals(restaurantId))) {
+                entries = List.copyOf(updated);
+                stale = true;
+            }
+        }
+
+        synchronized void replace(List<Ranked> ranked) {
+            entries = List.copyOf(ranked);
+            stale = false;
+        }
+
+        void markStale() {
+            stale = true;
+        }
+
+        boolean isStale() {
+            return stale;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.tabletop.service;
+
+import com.tabletop.entity.Restaurant;
+import com.tabletop.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the name, cuisine and description of active restaurants.
+ * Query terms match indexed terms exactly, as a prefix, or within a small edit distance,
+ * and results are ranked by how many query terms matched and then by a field-weighted,
+ * IDF-scaled score.
+ */
+@Component
+public class RestaurantSearchIndex {
+
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double CUISINE_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+
+    private static final double EXACT_MATCH = 1.0;
+    private static final double PREFIX_MATCH = 0.7;
+    private static final double FUZZY_MATCH = 0.5;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "at", "by", "for", "in", "of", "on", "or", "the", "to", "with");
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private IndexRebuildSupport rebuildSupport;
+
+    // term -> (restaurant id -> field-weighted term frequency); replaced as a whole by a rebuild
+    private NavigableMap<String, Map<Long, Double>> postings = new TreeMap<>();
+    private Map<Long, Set<String>> documentTerms = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready = false;
+
+    // Fresh postings are built and swapped in under the write lock, so a restaurant indexed
+    // meanwhile waits and is applied on top of the new snapshot
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildSupport.rebuild(lock, () -> {
+            postings = new TreeMap<>();
+            documentTerms = new HashMap<>();
+            for (Restaurant restaurant : restaurantRepository.findByIsActiveTrue()) {
+                addDocument(restaurant);
+            }
+            ready = true;
+        });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds or replaces a restaurant in the index; inactive restaurants are removed.
+     */
+    public void index(Restaurant restaurant) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(restaurant.getId());
+            if (Boolean.TRUE.equals(restaurant.getIsActive())) {
+                addDocument(restaurant);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long restaurantId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(restaurantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of matching restaurants, best match first.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryTerms.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        Map<Long, Integer> matchedTerms = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            int documentCount = Math.max(1, documentTerms.size());
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> termScores = new HashMap<>();
+                for (Map.Entry<String, Double> match : expand(queryTerm).entrySet()) {
+                    Map<Long, Double> documents = postings.get(match.getKey());
+                    double idf = Math.log(1.0 + (double) documentCount / documents.size());
+                    for (Map.Entry<Long, Double> posting : documents.entrySet()) {
+                        double score = match.getValue() * posting.getValue() * idf;
+                        // A query term counts once per restaurant, through its best-scoring expansion
+                        termScores.merge(posting.getKey(), score, Math::max);
+                    }
+                }
+                for (Map.Entry<Long, Double> termScore : termScores.entrySet()) {
+                    scores.merge(termScore.getKey(), termScore.getValue(), Double::sum);
+                    matchedTerms.merge(termScore.getKey(), 1, Integer::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return scores.keySet().stream()
+                .sorted(Comparator.<Long>comparingInt(matchedTerms::get).reversed()
+                        .thenComparing(Comparator.<Long>comparingDouble(scores::get).reversed())
+                        .thenComparing(Comparator.naturalOrder()))
+                .limit(limit)
+                .toList();
+    }
+
+    // Indexed terms a query term matches, with the strength of each match
+    private Map<String, Double> expand(String queryTerm) {
+        Map<String, Double> matches = new HashMap<>();
+        if (postings.containsKey(queryTerm)) {
+            matches.put(queryTerm, EXACT_MATCH);
+        }
+
+        if (queryTerm.length() >= MIN_PREFIX_LENGTH) {
+            for (String term : postings.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).keySet()) {
+                matches.put(term, PREFIX_MATCH);
+            }
+        }
+
+        // Typo tolerance only kicks in when nothing matched literally
+        int maxEdits = maxEdits(queryTerm);
+        if (matches.isEmpty() && maxEdits > 0) {
+            for (String term : postings.keySet()) {
+                if (Math.abs(term.length() - queryTerm.length()) <= maxEdits
+                        && editDistance(queryTerm, term, maxEdits) <= maxEdits) {
+                    matches.put(term, FUZZY_MATCH);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void addDocument(Restaurant restaurant) {
+        Map<String, Double> weights = new HashMap<>();
+        addField(weights, restaurant.getName(), NAME_WEIGHT);
+        addField(weights, restaurant.getCuisine(), CUISINE_WEIGHT);
+        addField(weights, restaurant.getDescription(), DESCRIPTION_WEIGHT);
+
+        for (Map.Entry<String, Double> weight : weights.entrySet()) {
+            postings.computeIfAbsent(weight.getKey(), term -> new HashMap<>())
+                    .put(restaurant.getId(), weight.getValue());
+        }
+        documentTerms.put(restaurant.getId(), weights.keySet());
+    }
+
+    private void removeDocument(Long restaurantId) {
+        Set<String> terms = documentTerms.remove(restaurantId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Double> documents = postings.get(term);
+            documents.remove(restaurantId);
+            if (documents.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private void addField(Map<String, Double> weights, String text, double fieldWeight) {
+        for (String term : tokenize(text)) {
+            weights.merge(term, fieldWeight, Double::sum);
+        }
+    }
+
+    private List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        for (String token : NON_WORD.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    private int maxEdits(String term) {
+        if (term.length() < MIN_FUZZY_LENGTH) {
+            return 0;
+        }
+        return term.length() < 8 ? 1 : 2;
+    }
+
+    // Levenshtein distance, abandoned as soon as every cell of a row exceeds the limit
+    private int editDistance(String a, String b, int limit) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
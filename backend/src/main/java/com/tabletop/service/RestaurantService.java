@@ -1,34 +1,61 @@
 package com.tabletop.service;
 
+import com.tabletop.dto.FacetedRestaurantsDTO;
 import com.tabletop.dto.RestaurantDTO;
 import com.tabletop.entity.Restaurant;
+import com.tabletop.entity.RestaurantStats;
 import com.tabletop.repository.RestaurantRepository;
-import com.tabletop.repository.ReviewRepository;
-import com.tabletop.repository.BookingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 public class RestaurantService {
     
+    private static final int MAX_TEXT_SEARCH_RESULTS = 100;
+    private static final double MAX_NEARBY_RADIUS_KM = 200.0;
+    private static final int MAX_NEARBY_RESULTS = 100;
+    
     @Autowired
     private RestaurantRepository restaurantRepository;
     
     @Autowired
-    private ReviewRepository reviewRepository;
+    private RestaurantStatsService restaurantStatsService;
     
     @Autowired
-    private BookingRepository bookingRepository;
+    private BookingAvailabilityIndex availabilityIndex;
     
-    public List<RestaurantDTO> getAllRestaurants() {
-        return restaurantRepository.findByIsActiveTrue()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Autowired
+    private PartnerCircuitBreaker circuitBreaker;
+    
+    @Autowired
+    private PartnerRoutingCache partnerRoutingCache;
+    
+    @Autowired
+    private RestaurantSearchIndex searchIndex;
+    
+    @Autowired
+    private RestaurantFacetIndex facetIndex;
+    
+    @Autowired
+    private RestaurantLeaderboards leaderboards;
+    
+    @Autowired
+    private RestaurantGeoIndex geoIndex;
+    
+    @Autowired
+    private CatalogVersion catalogVersion;
+    
+    public List<RestaurantDTO> getAllRestaurants(long afterId, int limit) {
+        return convertToDTOs(restaurantRepository.findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(
+                afterId, Limit.of(limit)));
     }
     
     public RestaurantDTO getRestaurantById(Long id) {
@@ -38,46 +65,97 @@ public class RestaurantService {
     }
     
     public List<RestaurantDTO> searchRestaurants(String city, String cuisine, 
-                                                BigDecimal minRating) {
-        return restaurantRepository.findRestaurantsWithFilters(city, cuisine, minRating)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                                                BigDecimal minRating, long afterId, int limit) {
+        // Until the facet index has been built, fall back to the LIKE query
+        if (!facetIndex.isReady()) {
+            return convertToDTOs(restaurantRepository.findRestaurantsWithFiltersAfter(
+                    city, cuisine, minRating, afterId, Limit.of(limit)));
+        }
+        return loadInOrder(facetIndex.filterIds(city, cuisine, minRating, null, afterId, limit));
+    }
+    
+    public FacetedRestaurantsDTO searchRestaurantsWithFacets(String city, String cuisine, BigDecimal minRating,
+                                                             Boolean isActive, long afterId, int limit) {
+        if (!facetIndex.isReady()) {
+            throw new RuntimeException("Restaurant filters are still loading, please retry shortly");
+        }
+        
+        RestaurantFacetIndex.FacetCounts counts = facetIndex.count(city, cuisine, minRating, isActive);
+        FacetedRestaurantsDTO result = new FacetedRestaurantsDTO();
+        result.setRestaurants(loadInOrder(facetIndex.filterIds(city, cuisine, minRating, isActive, afterId, limit)));
+        result.setTotalMatches(counts.getTotal());
+        result.setCityCounts(counts.getCities());
+        result.setCuisineCounts(counts.getCuisines());
+        result.setRatingCounts(counts.getRatings());
+        return result;
     }
     
     public List<RestaurantDTO> searchByText(String searchTerm) {
-        return restaurantRepository.findBySearchTerm(searchTerm)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // Until the index has been built, fall back to a LIKE scan over the same active restaurants
+        if (!searchIndex.isReady()) {
+            return convertToDTOs(restaurantRepository.findActiveBySearchTerm(searchTerm));
+        }
+        
+        return loadInOrder(searchIndex.search(searchTerm, MAX_TEXT_SEARCH_RESULTS));
     }
     
-    public List<RestaurantDTO> getTopRatedRestaurants() {
-        return restaurantRepository.findTopRatedRestaurants()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<RestaurantDTO> findNearbyRestaurants(double latitude, double longitude, double radiusKm, 
+                                                     int limit, String cuisine, BigDecimal minRating) {
+        if (!geoIndex.isReady()) {
+            throw new RuntimeException("Nearby search is still loading, please retry shortly");
+        }
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new RuntimeException("Coordinates are out of range");
+        }
+        if (radiusKm <= 0 || radiusKm > MAX_NEARBY_RADIUS_KM) {
+            throw new RuntimeException("Radius must be between 0 and " + MAX_NEARBY_RADIUS_KM + " km");
+        }
+        
+        List<RestaurantGeoIndex.Nearby> nearby = geoIndex.findNearby(latitude, longitude, radiusKm, 
+                Math.min(limit, MAX_NEARBY_RESULTS), cuisine, minRating);
+        List<RestaurantDTO> restaurants = loadInOrder(nearby.stream()
+                .map(RestaurantGeoIndex.Nearby::getRestaurantId)
+                .collect(Collectors.toList()));
+        
+        Map<Long, Double> distances = nearby.stream()
+                .collect(Collectors.toMap(RestaurantGeoIndex.Nearby::getRestaurantId, 
+                        RestaurantGeoIndex.Nearby::getDistanceKm));
+        for (RestaurantDTO restaurant : restaurants) {
+            restaurant.setDistanceKm(Math.round(distances.get(restaurant.getId()) * 100) / 100.0);
+        }
+        return restaurants;
     }
     
-    public List<RestaurantDTO> getMostBookedRestaurants() {
-        return restaurantRepository.findMostBookedRestaurants()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<RestaurantDTO> getTopRatedRestaurants(int limit) {
+        if (!leaderboards.isReady()) {
+            // Same cap as the in-memory leaderboard, so a cold start cannot be asked for every row
+            return convertToDTOs(restaurantRepository.findTopRatedRestaurants(
+                    Limit.of(Math.min(limit, leaderboards.getSize()))));
+        }
+        return loadInOrder(leaderboards.getTopRated(limit));
+    }
+    
+    public List<RestaurantDTO> getMostBookedRestaurants(RestaurantLeaderboards.Window window, int limit) {
+        if (!leaderboards.isReady()) {
+            throw new RuntimeException("Leaderboards are still loading, please retry shortly");
+        }
+        return loadInOrder(leaderboards.getMostBooked(window, limit));
     }
     
-    public List<RestaurantDTO> getPublicRestaurants(String city, String cuisine, 
-                                                   BigDecimal minRating, Boolean isActive) {
+    public List<RestaurantDTO> getPublicRestaurants(String city, String cuisine, BigDecimal minRating, 
+                                                   Boolean isActive, long afterId, int limit) {
         // If no filters provided, return all active restaurants
         if (city == null && cuisine == null && minRating == null && isActive == null) {
-            return restaurantRepository.findByIsActiveTrue()
-                    .stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            return getAllRestaurants(afterId, limit);
+        }
+        
+        if (facetIndex.isReady()) {
+            return loadInOrder(facetIndex.filterIds(city, cuisine, minRating, isActive, afterId, limit));
         }
         
         // Use existing search functionality with additional active filter
-        List<Restaurant> restaurants = restaurantRepository.findRestaurantsWithFilters(city, cuisine, minRating);
+        List<Restaurant> restaurants = restaurantRepository.findRestaurantsWithFiltersAfter(
+                city, cuisine, minRating, afterId, Limit.of(limit));
         
         // Filter by active status if specified
         if (isActive != null) {
@@ -86,13 +164,17 @@ public class RestaurantService {
                     .collect(Collectors.toList());
         }
         
-        return restaurants.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(restaurants);
     }
     
     public RestaurantDTO createRestaurant(Restaurant restaurant) {
         Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        availabilityIndex.registerRestaurant(savedRestaurant.getId(), savedRestaurant.getCapacity());
+        searchIndex.index(savedRestaurant);
+        facetIndex.index(savedRestaurant);
+        leaderboards.onRestaurantChanged(savedRestaurant);
+        geoIndex.index(savedRestaurant);
+        catalogVersion.bump();
         return convertToDTO(savedRestaurant);
     }
     
@@ -111,8 +193,18 @@ public class RestaurantService {
         restaurant.setImageUrl(restaurantDetails.getImageUrl());
         restaurant.setBookingApiUrl(restaurantDetails.getBookingApiUrl());
         restaurant.setSecretKey(restaurantDetails.getSecretKey());
+        restaurant.setCapacity(restaurantDetails.getCapacity());
+        restaurant.setLatitude(restaurantDetails.getLatitude());
+        restaurant.setLongitude(restaurantDetails.getLongitude());
         
         Restaurant updatedRestaurant = restaurantRepository.save(restaurant);
+        partnerRoutingCache.invalidate(id);
+        availabilityIndex.registerRestaurant(updatedRestaurant.getId(), updatedRestaurant.getCapacity());
+        searchIndex.index(updatedRestaurant);
+        facetIndex.index(updatedRestaurant);
+        leaderboards.onRestaurantChanged(updatedRestaurant);
+        geoIndex.index(updatedRestaurant);
+        catalogVersion.bump();
         return convertToDTO(updatedRestaurant);
     }
     
@@ -120,10 +212,46 @@ public class RestaurantService {
         Restaurant restaurant = restaurantRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Restaurant not found"));
         restaurant.setIsActive(false);
-        restaurantRepository.save(restaurant);
+        Restaurant deletedRestaurant = restaurantRepository.save(restaurant);
+        partnerRoutingCache.invalidate(id);
+        searchIndex.remove(id);
+        facetIndex.index(deletedRestaurant);
+        leaderboards.onRestaurantChanged(deletedRestaurant);
+        geoIndex.remove(id);
+        catalogVersion.bump();
+    }
+    
+    // Loads restaurants by id and keeps the order of the given ids
+    private List<RestaurantDTO> loadInOrder(List<Long> ids) {
+        Map<Long, Restaurant> restaurants = restaurantRepository.findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(Restaurant::getId, restaurant -> restaurant));
+        return convertToDTOs(ids.stream()
+                .map(restaurants::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+    }
+    
+    // Statistics for a whole list come from one primary-key lookup on restaurant_stats
+    private List<RestaurantDTO> convertToDTOs(List<Restaurant> restaurants) {
+        if (restaurants.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Map<Long, RestaurantStats> stats = restaurantStatsService.getStats(restaurants.stream()
+                .map(Restaurant::getId)
+                .collect(Collectors.toList()));
+        
+        return restaurants.stream()
+                .map(restaurant -> convertToDTO(restaurant, stats.get(restaurant.getId())))
+                .collect(Collectors.toList());
     }
     
     private RestaurantDTO convertToDTO(Restaurant restaurant) {
+        return convertToDTO(restaurant, restaurantStatsService.getStats(restaurant.getId()));
+    }
+    
+    private RestaurantDTO convertToDTO(Restaurant restaurant, RestaurantStats stats) {
         RestaurantDTO dto = new RestaurantDTO();
         dto.setId(restaurant.getId());
         dto.setName(restaurant.getName());
@@ -137,11 +265,16 @@ public class RestaurantService {
         dto.setImageUrl(restaurant.getImageUrl());
         dto.setBookingApiUrl(restaurant.getBookingApiUrl());
         dto.setSecretKey(restaurant.getSecretKey());
+        dto.setCapacity(availabilityIndex.effectiveCapacity(restaurant.getCapacity()));
+        dto.setLatitude(restaurant.getLatitude());
+        dto.setLongitude(restaurant.getLongitude());
         dto.setIsActive(restaurant.getIsActive());
+        dto.setTemporarilyUnbookable(!circuitBreaker.isCallPermitted(restaurant.getId()));
         
         // Set additional statistics
-        dto.setTotalBookings(bookingRepository.countConfirmedBookingsByRestaurant(restaurant));
-        dto.setTotalReviews(reviewRepository.countReviewsByRestaurant(restaurant));
+        dto.setTotalBookings(stats.getConfirmedBookings());
+        dto.setTotalReviews(stats.getReviewCount());
+        dto.setAverageRating(stats.getReviewCount() > 0 ? stats.getAverageRating() : null);
         
         return dto;
     }
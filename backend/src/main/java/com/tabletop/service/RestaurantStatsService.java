@@ -0,0 +1,217 @@
+package com.tabletop.service;
+
+import com.tabletop.entity.Booking;
+import com.tabletop.entity.RestaurantStats;
+import com.tabletop.repository.BookingRepository;
+import com.tabletop.repository.RestaurantStatsRepository;
+import com.tabletop.repository.ReviewRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps per-restaurant booking and review totals in the restaurant_stats table. Every
+ * write adjusts the row with a relative update inside the caller's transaction, so reads
+ * are a primary-key lookup; a periodic reconciler recomputes the totals from the source
+ * tables to repair any drift. Leaderboards hear about each change once it has committed.
+ */
+@Service
+public class RestaurantStatsService {
+
+    @Autowired
+    private RestaurantStatsRepository statsRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private RestaurantLeaderboards leaderboards;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private RatingHistogramIndex ratingHistograms;
+
+    public RestaurantStats getStats(Long restaurantId) {
+        return statsRepository.findById(restaurantId)
+                .orElseGet(() -> new RestaurantStats(restaurantId));
+    }
+
+    public Map<Long, RestaurantStats> getStats(Collection<Long> restaurantIds) {
+        Map<Long, RestaurantStats> stats = statsRepository.findAllById(restaurantIds)
+                .stream()
+                .collect(Collectors.toMap(RestaurantStats::getRestaurantId, Function.identity()));
+        for (Long restaurantId : restaurantIds) {
+            stats.computeIfAbsent(restaurantId, RestaurantStats::new);
+        }
+        return stats;
+    }
+
+    @Transactional
+    public void onBookingStatusChanged(Long restaurantId, LocalDateTime bookedAt,
+                                       Booking.BookingStatus previousStatus, Booking.BookingStatus newStatus) {
+        boolean wasConfirmed = previousStatus == Booking.BookingStatus.CONFIRMED;
+        boolean isConfirmed = newStatus == Booking.BookingStatus.CONFIRMED;
+        if (wasConfirmed != isConfirmed) {
+            int delta = isConfirmed ? 1 : -1;
+            adjustConfirmedBookings(restaurantId, delta);
+            afterCommit(() -> {
+                leaderboards.onBookingConfirmed(restaurantId, bookedAt, delta);
+                catalogVersion.bump();
+            });
+        }
+    }
+
+    @Transactional
+    public void onBookingsConfirmed(List<Booking> bookings) {
+        bookings.stream()
+                .collect(Collectors.groupingBy(booking -> booking.getRestaurant().getId(), Collectors.counting()))
+                .forEach(this::adjustConfirmedBookings);
+        afterCommit(() -> {
+            bookings.forEach(booking -> leaderboards.onBookingConfirmed(
+                    booking.getRestaurant().getId(), booking.getCreatedAt(), 1));
+            catalogVersion.bump();
+        });
+    }
+
+    @Transactional
+    public void onReviewAdded(Long restaurantId, BigDecimal rating) {
+        adjustReviews(restaurantId, 1, ratingOrZero(rating));
+        afterCommit(() -> ratingHistograms.onReviewAdded(restaurantId, rating));
+    }
+
+    @Transactional
+    public void onReviewChanged(Long restaurantId, BigDecimal previousRating, BigDecimal newRating) {
+        BigDecimal ratingDelta = ratingOrZero(newRating).subtract(ratingOrZero(previousRating));
+        if (ratingDelta.signum() != 0) {
+            adjustReviews(restaurantId, 0, ratingDelta);
+            afterCommit(() -> ratingHistograms.onReviewChanged(restaurantId, previousRating, newRating));
+        }
+    }
+
+    @Transactional
+    public void onReviewRemoved(Long restaurantId, BigDecimal rating) {
+        adjustReviews(restaurantId, -1, ratingOrZero(rating).negate());
+        afterCommit(() -> ratingHistograms.onReviewRemoved(restaurantId, rating));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${stats.reconcile-interval-ms:3600000}",
+               fixedDelayString = "${stats.reconcile-interval-ms:3600000}")
+    @Transactional
+    public void reconcile() {
+        Map<Long, Long> bookingCounts = new HashMap<>();
+        for (Object[] row : bookingRepository.countConfirmedBookingsGroupedByRestaurant()) {
+            bookingCounts.put((Long) row[0], (Long) row[1]);
+        }
+
+        Map<Long, Object[]> reviewSummaries = new HashMap<>();
+        for (Object[] row : reviewRepository.summarizeReviewsGroupedByRestaurant()) {
+            reviewSummaries.put((Long) row[0], row);
+        }
+
+        Map<Long, RestaurantStats> existing = statsRepository.findAll()
+                .stream()
+                .collect(Collectors.toMap(RestaurantStats::getRestaurantId, Function.identity()));
+
+        boolean corrected = false;
+        Set<Long> restaurantIds = new HashSet<>(existing.keySet());
+        restaurantIds.addAll(bookingCounts.keySet());
+        restaurantIds.addAll(reviewSummaries.keySet());
+
+        // The grouped reads only pick out rows that look wrong; each one is then recomputed
+        // by a single UPDATE, so a booking or review committed meanwhile is never overwritten
+        for (Long restaurantId : restaurantIds) {
+            Object[] reviews = reviewSummaries.get(restaurantId);
+            long confirmedBookings = bookingCounts.getOrDefault(restaurantId, 0L);
+            long reviewCount = reviews == null ? 0L : (Long) reviews[1];
+            BigDecimal ratingSum = reviews == null || reviews[2] == null ? BigDecimal.ZERO : (BigDecimal) reviews[2];
+            BigDecimal averageRating = average(ratingSum, reviewCount);
+
+            RestaurantStats stats = existing.get(restaurantId);
+            if (stats == null) {
+                statsRepository.insertIfMissing(restaurantId);
+            } else if (stats.getConfirmedBookings() == confirmedBookings
+                    && stats.getReviewCount() == reviewCount
+                    && stats.getRatingSum().compareTo(ratingSum) == 0
+                    && stats.getAverageRating().compareTo(averageRating) == 0) {
+                continue;
+            }
+
+            statsRepository.recompute(restaurantId);
+            statsRepository.refreshAverageRating(restaurantId);
+            corrected = true;
+        }
+        if (corrected) {
+            afterCommit(catalogVersion::bump);
+        }
+    }
+
+    private void adjustConfirmedBookings(Long restaurantId, long delta) {
+        leaderboards.holdRebuildUntilTransactionCompletes();
+        if (statsRepository.adjustConfirmedBookings(restaurantId, delta) == 0) {
+            statsRepository.insertIfMissing(restaurantId);
+            statsRepository.adjustConfirmedBookings(restaurantId, delta);
+        }
+    }
+
+    private void adjustReviews(Long restaurantId, long countDelta, BigDecimal ratingDelta) {
+        leaderboards.holdRebuildUntilTransactionCompletes();
+        ratingHistograms.holdRebuildUntilTransactionCompletes();
+        if (statsRepository.adjustReviews(restaurantId, countDelta, ratingDelta) == 0) {
+            statsRepository.insertIfMissing(restaurantId);
+            statsRepository.adjustReviews(restaurantId, countDelta, ratingDelta);
+        }
+        statsRepository.refreshAverageRating(restaurantId);
+        afterCommit(() -> {
+            leaderboards.onReviewChanged(restaurantId, countDelta, ratingDelta);
+            catalogVersion.bump();
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private BigDecimal ratingOrZero(BigDecimal rating) {
+        return Objects.requireNonNullElse(rating, BigDecimal.ZERO);
+    }
+
+    private BigDecimal average(BigDecimal ratingSum, long reviewCount) {
+        if (reviewCount == 0) {
+            return BigDecimal.ZERO;
+        }
+        return ratingSum.divide(BigDecimal.valueOf(reviewCount), 2, RoundingMode.HALF_UP);
+    }
+}
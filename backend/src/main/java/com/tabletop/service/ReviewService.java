@@ -0,0 +1,41 @@
+package com.tabletop.service;
+
+import com.tabletop.dto.ReviewDTO;
+import com.tabletop.entity.Review;
+import com.tabletop.repository.ReviewRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.OutputStream;
+
+@Service
+public class ReviewService {
+    
+    @Autowired
+    private ReviewRepository reviewRepository;
+    
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+    
+    /**
+     * Writes every review to the stream as newline-delimited JSON, read through a
+     * server-side cursor.
+     */
+    @Transactional(readOnly = true)
+    public void exportReviews(OutputStream out) {
+        ndjsonExporter.export(reviewRepository.streamAllForExport(), this::convertToDTO, out);
+    }
+    
+    public ReviewDTO convertToDTO(Review review) {
+        ReviewDTO dto = new ReviewDTO();
+        dto.setId(review.getId());
+        dto.setUserId(review.getUser().getId());
+        dto.setRestaurantId(review.getRestaurant().getId());
+        dto.setUserName(review.getUser().getFirstName() + " " + review.getUser().getLastName());
+        dto.setRating(review.getRating());
+        dto.setReviewText(review.getReviewText());
+        dto.setCreatedAt(review.getCreatedAt());
+        return dto;
+    }
+}
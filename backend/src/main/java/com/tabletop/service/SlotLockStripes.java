@@ -0,0 +1,82 @@
+package com.tabletop.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks striped by (restaurant, slot). Bookings for the same restaurant slot
+ * share a stripe while unrelated bookings almost never do, so mutual exclusion stays slot
+ * level without a global lock. Stripes are always taken in ascending order to avoid deadlock.
+ */
+@Component
+public class SlotLockStripes {
+    
+    @Value("${booking.locks.stripes:1024}")
+    private int stripeCount;
+    
+    private ReentrantLock[] stripes;
+    
+    @PostConstruct
+    void init() {
+        // Round up to a power of two so the stripe can be picked with a mask
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+    
+    public Held lock(Long restaurantId, long firstSlot, long lastSlot) {
+        return lock(List.of(new SlotRange(restaurantId, firstSlot, lastSlot)));
+    }
+    
+    /**
+     * Locks the stripes of several slot ranges in one ascending pass, so a caller touching
+     * many restaurants or times never holds one stripe while waiting for a lower one.
+     */
+    public Held lock(Collection<SlotRange> ranges) {
+        int[] indexes = ranges.stream()
+                .flatMapToInt(range -> IntStream.rangeClosed(0, (int) (range.lastSlot() - range.firstSlot()))
+                        .map(offset -> stripeIndex(range.restaurantId(), range.firstSlot() + offset)))
+                .sorted()
+                .distinct()
+                .toArray();
+        
+        for (int i = 0; i < indexes.length; i++) {
+            stripes[indexes[i]].lock();
+        }
+        return new Held(indexes);
+    }
+    
+    private int stripeIndex(Long restaurantId, long slot) {
+        long hash = restaurantId * 0x9E3779B97F4A7C15L + slot;
+        hash ^= (hash >>> 32);
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= (hash >>> 29);
+        return (int) hash & (stripes.length - 1);
+    }
+    
+    public record SlotRange(Long restaurantId, long firstSlot, long lastSlot) {
+    }
+    
+    public final class Held implements AutoCloseable {
+        private final int[] indexes;
+        
+        private Held(int[] indexes) {
+            this.indexes = indexes;
+        }
+        
+        @Override
+        public void close() {
+            for (int i = indexes.length - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+}
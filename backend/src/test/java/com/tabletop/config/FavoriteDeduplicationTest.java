@@ -0,0 +1,71 @@
+package com.tabletop.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class FavoriteDeduplicationTest {
+
+    private static final String COUNT_PAIR_SQL = 
+        "SELECT COUNT(*) FROM favorites WHERE user_id = ? AND restaurant_id = ?";
+
+    @Autowired
+    private FavoriteDeduplication favoriteDeduplication;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    private Long userId;
+
+    private Long restaurantId;
+
+    @AfterEach
+    void restoreUniqueKey() {
+        if (userId == null) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM favorites WHERE user_id = ? AND restaurant_id = ?", userId, restaurantId);
+        jdbcTemplate.execute("ALTER TABLE favorites ADD CONSTRAINT uk_favorites_user_restaurant " 
+                + "UNIQUE (user_id, restaurant_id)");
+    }
+
+    @Test
+    void runsBeforeTheEntityManagerFactory() {
+        String[] dependsOn = beanFactory.getBeanDefinition("entityManagerFactory").getDependsOn();
+        assertTrue(dependsOn != null && Arrays.asList(dependsOn).contains("favoriteDeduplication"));
+    }
+
+    @Test
+    void keepsTheOldestFavoriteOfEachPair() {
+        userId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users", Long.class);
+        restaurantId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM restaurants", Long.class);
+        // Simulates a database from before the unique key existed
+        jdbcTemplate.execute("ALTER TABLE favorites DROP CONSTRAINT uk_favorites_user_restaurant");
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("INSERT INTO favorites (user_id, restaurant_id, created_at) "
+                    + "VALUES (?, ?, CURRENT_TIMESTAMP)", userId, restaurantId);
+        }
+        Long oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM favorites WHERE user_id = ? AND restaurant_id = ?", Long.class, userId, restaurantId);
+
+        favoriteDeduplication.removeDuplicates();
+
+        assertEquals(1, jdbcTemplate.queryForObject(COUNT_PAIR_SQL, Long.class, userId, restaurantId));
+        assertEquals(oldest, jdbcTemplate.queryForObject(
+                "SELECT id FROM favorites WHERE user_id = ? AND restaurant_id = ?", Long.class, userId, restaurantId));
+    }
+}
@@ -0,0 +1,37 @@
+package com.tabletop.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RatingSumScaleMigrationTest {
+
+    @Autowired
+    private RatingSumScaleMigration ratingSumScaleMigration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void widensOneDecimalRatingSums() {
+        // Simulates a table created before rating sums kept two decimals
+        jdbcTemplate.execute("ALTER TABLE restaurant_stats MODIFY rating_sum DECIMAL(12, 1) NOT NULL");
+        assertEquals(1, ratingSumScale());
+
+        ratingSumScaleMigration.widenRatingSum();
+
+        assertEquals(2, ratingSumScale());
+    }
+
+    private int ratingSumScale() {
+        return jdbcTemplate.query("SELECT rating_sum FROM restaurant_stats WHERE 1 = 0",
+                (ResultSetExtractor<Integer>) resultSet -> resultSet.getMetaData().getScale(1));
+    }
+}
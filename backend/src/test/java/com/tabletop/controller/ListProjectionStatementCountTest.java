@@ -0,0 +1,144 @@
+package com.tabletop.controller;
+
+import com.tabletop.entity.Booking;
+import com.tabletop.entity.Favorite;
+import com.tabletop.entity.Restaurant;
+import com.tabletop.entity.Review;
+import com.tabletop.entity.User;
+import com.tabletop.repository.BookingRepository;
+import com.tabletop.repository.FavoriteRepository;
+import com.tabletop.repository.RestaurantRepository;
+import com.tabletop.repository.ReviewRepository;
+import com.tabletop.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Booking, review and favorite lists are read as DTO projections. Their statement count
+ * must stay the same whether a page holds a few rows or many.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListProjectionStatementCountTest {
+
+    private static final int ROWS = 30;
+
+    @Autowired
+    private BookingController bookingController;
+
+    @Autowired
+    private ReviewController reviewController;
+
+    @Autowired
+    private FavoriteController favoriteController;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private User user;
+
+    private Restaurant restaurant;
+
+    @BeforeAll
+    void createRows() {
+        user = userRepository.save(new User("projection", "projection@example.com", "secret", 
+                "Projection", "Counter"));
+        restaurant = restaurantRepository.save(new Restaurant("Projection Diner", "Counted", 
+                "1 Query Lane", "Projectionville", "Fusion", new BigDecimal("4.0")));
+        for (int i = 0; i < ROWS; i++) {
+            bookingRepository.save(new Booking(user, restaurant, LocalDateTime.now().plusDays(i + 1), 2, null));
+            reviewRepository.save(new Review(user, restaurant, new BigDecimal("4.0"), "Review " + i));
+            Restaurant favorite = restaurantRepository.save(new Restaurant("Projection Favorite " + i, 
+                    "Counted", i + " Query Lane", "Projectionville", "Fusion", new BigDecimal("4.0")));
+            favoriteRepository.save(new Favorite(user, favorite));
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void allBookingsCostTheSameAtAnySize() {
+        assertConstant(limit -> bookingController.getAllBookings(null, limit), 1);
+    }
+
+    @Test
+    void userBookingsCostTheSameAtAnySize() {
+        assertConstant(limit -> bookingController.getBookingsByUser(user.getId(), null, limit), 2);
+    }
+
+    @Test
+    void restaurantBookingsCostTheSameAtAnySize() {
+        assertConstant(limit -> bookingController.getBookingsByRestaurant(restaurant.getId(), null, limit), 2);
+    }
+
+    @Test
+    void allReviewsCostTheSameAtAnySize() {
+        assertConstant(limit -> reviewController.getAllReviews(null, limit), 1);
+    }
+
+    @Test
+    void restaurantReviewsCostTheSameAtAnySize() {
+        assertConstant(limit -> reviewController.getReviewsByRestaurant(restaurant.getId(), null, limit), 2);
+    }
+
+    @Test
+    void userReviewsCostTheSameAtAnySize() {
+        assertConstant(limit -> reviewController.getReviewsByUser(user.getId(), null, limit), 2);
+    }
+
+    @Test
+    void userFavoritesCostTheSameAtAnySize() {
+        assertConstant(limit -> favoriteController.getFavoritesByUser(user.getId(), null, limit), 1);
+    }
+
+    // An existence check, where the endpoint has one, plus the projection query itself
+    private void assertConstant(IntFunction<ResponseEntity<? extends List<?>>> call, int maximum) {
+        long small = statementsFor(call, 3);
+        long large = statementsFor(call, ROWS);
+        assertEquals(small, large);
+        assertTrue(large <= maximum, "expected at most " + maximum + " statements, got " + large);
+    }
+
+    // Runs the call against a cold second-level cache and returns the statements it prepared
+    private long statementsFor(IntFunction<ResponseEntity<? extends List<?>>> call, int limit) {
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        List<?> rows = call.apply(limit).getBody();
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals(limit, rows.size());
+        return statements;
+    }
+}
@@ -0,0 +1,49 @@
+package com.tabletop.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AvailabilityGridValidationTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2030, 1, 1, 18, 0);
+
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        BookingAvailabilityIndex availabilityIndex = mock(BookingAvailabilityIndex.class);
+        when(availabilityIndex.isReady()).thenReturn(true);
+        bookingService = new BookingService();
+        ReflectionTestUtils.setField(bookingService, "availabilityIndex", availabilityIndex);
+    }
+
+    @Test
+    void partySmallerThanOneIsRejected() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> bookingService.getAvailabilityGrid(List.of(1L), FROM, FROM.plusHours(2), 30, 0));
+        assertEquals("Number of people must be at least 1", e.getMessage());
+    }
+
+    @Test
+    void rangeShorterThanOneSlotIsRejected() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> bookingService.getAvailabilityGrid(List.of(1L), FROM, FROM.plusMinutes(20), 30, 2));
+        assertEquals("Requested range must cover at least one slot", e.getMessage());
+    }
+
+    @Test
+    void emptyRangeIsRejected() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> bookingService.getAvailabilityGrid(List.of(1L), FROM, FROM, 30, 2));
+        assertEquals("End of range must be after its start", e.getMessage());
+    }
+}
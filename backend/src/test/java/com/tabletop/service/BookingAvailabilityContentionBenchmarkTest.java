@@ -0,0 +1,126 @@
+package com.tabletop.service;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reservation throughput of the availability index under contention, from every thread
+ * hammering one restaurant down to the load spread over a thousand. Each run also checks
+ * that the counters never oversell and end up matching the bookings still held.
+ */
+class BookingAvailabilityContentionBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 50_000;
+    private static final int CAPACITY = 40;
+    private static final int START_TIMES = 8;
+    private static final int SLOT_MINUTES = 30;
+    private static final int SEATING_SLOTS = 3;
+    private static final LocalDateTime OPENING = LocalDateTime.of(2030, 1, 1, 18, 0);
+
+    @ParameterizedTest(name = "{0} restaurants")
+    @ValueSource(ints = {1, 10, 1000})
+    void reservationsUnderContention(int restaurantCount) throws Exception {
+        BookingAvailabilityIndex index = newIndex(restaurantCount);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        List<Future<long[][]>> workers = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> reserveAndRelease(index, restaurantCount)));
+        }
+        // Covers each worker still holds, by restaurant and start time
+        long[][] held = new long[restaurantCount][START_TIMES];
+        for (Future<long[][]> worker : workers) {
+            long[][] workerHeld = worker.get(60, TimeUnit.SECONDS);
+            for (int r = 0; r < restaurantCount; r++) {
+                for (int s = 0; s < START_TIMES; s++) {
+                    held[r][s] += workerHeld[r][s];
+                }
+            }
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        pool.shutdown();
+
+        System.out.printf("%d restaurants: %,.0f operations/s%n", restaurantCount,
+                THREADS * (double) OPERATIONS_PER_THREAD / (elapsedNanos / 1e9));
+
+        for (int r = 0; r < restaurantCount; r++) {
+            for (int s = 0; s < START_TIMES; s++) {
+                long peak = 0;
+                for (int slot = s; slot < s + SEATING_SLOTS; slot++) {
+                    long used = coversInSlot(held[r], slot);
+                    assertTrue(used <= CAPACITY, "slot oversold: " + used);
+                    peak = Math.max(peak, used);
+                }
+                assertEquals(CAPACITY - peak, index.getRemainingCovers((long) r + 1, startTime(s)));
+            }
+        }
+    }
+
+    private long[][] reserveAndRelease(BookingAvailabilityIndex index, int restaurantCount) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[][] held = new long[restaurantCount][START_TIMES];
+        List<int[]> bookings = new ArrayList<>();
+
+        for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+            // Release one of our own bookings about half the time to keep slots contended
+            if (!bookings.isEmpty() && random.nextBoolean()) {
+                int[] booking = bookings.remove(random.nextInt(bookings.size()));
+                index.release((long) booking[0] + 1, startTime(booking[1]), booking[2]);
+                held[booking[0]][booking[1]] -= booking[2];
+                continue;
+            }
+            int restaurant = random.nextInt(restaurantCount);
+            int start = random.nextInt(START_TIMES);
+            int people = 1 + random.nextInt(4);
+            if (index.tryReserve((long) restaurant + 1, startTime(start), people)) {
+                bookings.add(new int[] {restaurant, start, people});
+                held[restaurant][start] += people;
+            }
+        }
+        return held;
+    }
+
+    private static long coversInSlot(long[] heldByStart, int slot) {
+        long covers = 0;
+        for (int start = Math.max(0, slot - SEATING_SLOTS + 1); start <= slot && start < START_TIMES; start++) {
+            covers += heldByStart[start];
+        }
+        return covers;
+    }
+
+    private static LocalDateTime startTime(int start) {
+        return OPENING.plusMinutes((long) start * SLOT_MINUTES);
+    }
+
+    private static BookingAvailabilityIndex newIndex(int restaurantCount) {
+        SlotLockStripes slotLocks = new SlotLockStripes();
+        ReflectionTestUtils.setField(slotLocks, "stripeCount", 1024);
+        slotLocks.init();
+
+        BookingAvailabilityIndex index = new BookingAvailabilityIndex();
+        ReflectionTestUtils.setField(index, "slotLocks", slotLocks);
+        ReflectionTestUtils.setField(index, "defaultCapacity", CAPACITY);
+        ReflectionTestUtils.setField(index, "slotMinutes", SLOT_MINUTES);
+        ReflectionTestUtils.setField(index, "seatingMinutes", SEATING_SLOTS * SLOT_MINUTES);
+        for (long id = 1; id <= restaurantCount; id++) {
+            index.registerRestaurant(id, CAPACITY);
+        }
+        ReflectionTestUtils.setField(index, "ready", true);
+        return index;
+    }
+}
@@ -0,0 +1,125 @@
+package com.tabletop.service;
+
+import com.tabletop.repository.BookingRepository;
+import com.tabletop.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingAvailabilityIndexWarmupTest {
+
+    private static final int CAPACITY = 40;
+    private static final LocalDateTime DINNER = LocalDateTime.of(2030, 1, 1, 19, 0);
+
+    private final List<Object[]> committedBookings = new ArrayList<>();
+
+    private BookingAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        SlotLockStripes slotLocks = new SlotLockStripes();
+        ReflectionTestUtils.setField(slotLocks, "stripeCount", 64);
+        slotLocks.init();
+
+        RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+        when(restaurantRepository.findAllCapacities()).thenReturn(List.<Object[]>of(new Object[] {1L, CAPACITY}));
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findActiveBookingSlotsFrom(any())).thenAnswer(invocation -> new ArrayList<>(committedBookings));
+
+        index = new BookingAvailabilityIndex();
+        ReflectionTestUtils.setField(index, "slotLocks", slotLocks);
+        ReflectionTestUtils.setField(index, "restaurantRepository", restaurantRepository);
+        ReflectionTestUtils.setField(index, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(index, "defaultCapacity", CAPACITY);
+        ReflectionTestUtils.setField(index, "slotMinutes", 30);
+        ReflectionTestUtils.setField(index, "seatingMinutes", 90);
+    }
+
+    @Test
+    void concurrentWarmupClaimsNeverExceedCapacity() throws Exception {
+        int threads = 8;
+        CyclicBarrier claimed = new CyclicBarrier(threads + 1);
+        CountDownLatch verified = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        List<Future<Integer>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(pool.submit(() -> {
+                List<BookingAvailabilityIndex.WarmupClaim> claims = new ArrayList<>();
+                for (int i = 0; i < 20; i++) {
+                    LocalDateTime time = DINNER.plusMinutes(i % 3 * 30);
+                    assertTrue(index.enterWarmup());
+                    try (SlotLockStripes.Held held = index.lockSlots(List.of(index.slotRange(1L, time)))) {
+                        if (CAPACITY - index.getClaimedWarmupCovers(1L, time) >= 1) {
+                            claims.add(index.claimWarmupCovers(1L, time, 1));
+                        }
+                    } finally {
+                        index.exitWarmup();
+                    }
+                }
+                claimed.await();
+                verified.await();
+                // Claims hold the rebuild lock for their own thread, so they are closed where taken
+                claims.forEach(BookingAvailabilityIndex.WarmupClaim::close);
+                return claims.size();
+            }));
+        }
+
+        claimed.await(30, TimeUnit.SECONDS);
+        // Every claim overlaps the middle start time, so together they may fill it but never more
+        assertEquals(CAPACITY, index.getClaimedWarmupCovers(1L, DINNER.plusMinutes(30)));
+        verified.countDown();
+
+        int total = 0;
+        for (Future<Integer> worker : workers) {
+            total += worker.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        assertEquals(CAPACITY, total);
+        assertEquals(0, index.getClaimedWarmupCovers(1L, DINNER));
+    }
+
+    @Test
+    void rebuildWaitsForInFlightWarmupBookings() throws Exception {
+        assertTrue(index.enterWarmup());
+        BookingAvailabilityIndex.WarmupClaim claim;
+        try (SlotLockStripes.Held held = index.lockSlots(1L, DINNER)) {
+            claim = index.claimWarmupCovers(1L, DINNER, 6);
+        } finally {
+            index.exitWarmup();
+        }
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<?> rebuild = pool.submit(index::rebuild);
+        Thread.sleep(200);
+        assertFalse(rebuild.isDone());
+        assertFalse(index.isReady());
+
+        // The booking commits after the rebuild was requested; it must still be in the snapshot
+        committedBookings.add(new Object[] {1L, DINNER, 6});
+        claim.close();
+
+        rebuild.get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+        assertTrue(index.isReady());
+        assertFalse(index.enterWarmup());
+        assertEquals(CAPACITY - 6, index.getRemainingCovers(1L, DINNER));
+    }
+}
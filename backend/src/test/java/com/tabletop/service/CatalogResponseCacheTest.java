@@ -0,0 +1,86 @@
+package com.tabletop.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogResponseCacheTest {
+
+    private CatalogVersion catalogVersion;
+    private CatalogResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        catalogVersion = new CatalogVersion();
+        cache = new CatalogResponseCache();
+        ReflectionTestUtils.setField(cache, "catalogVersion", catalogVersion);
+        ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(cache, "maxEntries", 10);
+    }
+
+    @Test
+    void concurrentMissesShareOneRendering() throws Exception {
+        int requests = 8;
+        AtomicInteger renders = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(requests);
+
+        List<Future<ResponseEntity<byte[]>>> responses = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            responses.add(pool.submit(() -> cache.respond("restaurants?{}", false, () -> {
+                renders.incrementAndGet();
+                await(release);
+                return ResponseEntity.ok(List.of("Colombo Spice House"));
+            })));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<ResponseEntity<byte[]>> response : responses) {
+            assertArrayEquals("[\"Colombo Spice House\"]".getBytes(), response.get(10, TimeUnit.SECONDS).getBody());
+        }
+        pool.shutdown();
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void gzippedAndPlainVariantsShareOneWeakETag() {
+        List<String> large = Collections.nCopies(200, "Colombo Spice House");
+        cache.respond("restaurants?{}", false, () -> ResponseEntity.ok(large));
+
+        ResponseEntity<byte[]> gzipped = cache.respond("restaurants?{}", true, () -> ResponseEntity.ok(large));
+        ResponseEntity<byte[]> plain = cache.respond("restaurants?{}", false, () -> ResponseEntity.ok(large));
+
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, gzipped.getHeaders().getFirst(HttpHeaders.VARY));
+        // Both variants are validated against the same catalog version, so it must be weak
+        assertTrue(catalogVersion.getETag().startsWith("W/\""));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.tabletop.service;
+
+import com.tabletop.repository.FavoriteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FavoritesIndexRebuildTest {
+
+    private final FavoriteRepository favoriteRepository = mock(FavoriteRepository.class);
+    private FavoritesIndex index;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:favorites", "sa", "");
+        IndexRebuildSupport rebuildSupport = new IndexRebuildSupport();
+        ReflectionTestUtils.setField(rebuildSupport, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(rebuildSupport, "dataSource", dataSource);
+
+        index = new FavoritesIndex();
+        ReflectionTestUtils.setField(index, "favoriteRepository", favoriteRepository);
+        ReflectionTestUtils.setField(index, "rebuildSupport", rebuildSupport);
+    }
+
+    @Test
+    void favoriteAddedDuringRebuildIsKept() throws InterruptedException {
+        Thread[] writer = new Thread[1];
+        // The favorite is added after the snapshot was read but before the rebuild publishes it
+        when(favoriteRepository.findAllUserAndRestaurantIds()).thenAnswer(invocation -> {
+            writer[0] = new Thread(() -> index.add(7L, 2L));
+            writer[0].start();
+            writer[0].join(200);
+            return rows(new Object[] {7L, 1L});
+        });
+
+        index.rebuild();
+        writer[0].join();
+
+        assertEquals(List.of(1L, 2L), index.filterFavorited(7L, List.of(1L, 2L, 3L)));
+    }
+
+    @Test
+    void favoriteRemovedDuringRebuildStaysRemoved() throws InterruptedException {
+        Thread[] writer = new Thread[1];
+        // The snapshot still holds a favorite that is removed before the rebuild publishes it
+        when(favoriteRepository.findAllUserAndRestaurantIds()).thenAnswer(invocation -> {
+            writer[0] = new Thread(() -> index.remove(7L, 1L));
+            writer[0].start();
+            writer[0].join(200);
+            return rows(new Object[] {7L, 1L}, new Object[] {7L, 2L});
+        });
+
+        index.rebuild();
+        writer[0].join();
+
+        assertEquals(List.of(2L), index.filterFavorited(7L, List.of(1L, 2L)));
+    }
+
+    private List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
@@ -0,0 +1,79 @@
+package com.tabletop.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotencyStoreTest {
+
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore();
+        ReflectionTestUtils.setField(store, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(store, "maxEntries", 100);
+        ReflectionTestUtils.setField(store, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(store, "waitTimeoutMs", 1_000L);
+    }
+
+    @Test
+    void repeatedRequestReturnsStoredResult() {
+        AtomicInteger calls = new AtomicInteger();
+        Map<String, Object> request = Map.of("restaurantId", 1, "numberOfPeople", 2);
+
+        Integer first = store.execute("booking:user:1", "key", request, calls::incrementAndGet);
+        Integer second = store.execute("booking:user:1", "key", request, calls::incrementAndGet);
+
+        assertEquals(1, first);
+        assertEquals(1, second);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void sameKeyFromAnotherUserRunsSeparately() {
+        AtomicInteger calls = new AtomicInteger();
+        Map<String, Object> request = Map.of("restaurantId", 1, "numberOfPeople", 2);
+
+        store.execute("booking:user:1", "key", request, calls::incrementAndGet);
+        Integer other = store.execute("booking:user:2", "key", request, calls::incrementAndGet);
+
+        assertEquals(2, other);
+    }
+
+    @Test
+    void reusedKeyWithDifferentBodyIsRejected() {
+        store.execute("booking:user:1", "key", Map.of("numberOfPeople", 2), () -> 1);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> store.execute("booking:user:1", "key", Map.of("numberOfPeople", 4), () -> 2));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+    }
+
+    @Test
+    void retriedKeyIsNotEvictedByItsFailedAttempt() {
+        ReflectionTestUtils.setField(store, "maxEntries", 2);
+        AtomicInteger calls = new AtomicInteger();
+        Map<String, Object> request = Map.of("numberOfPeople", 2);
+
+        assertThrows(RuntimeException.class, () -> store.execute("booking:user:1", "a", request, () -> {
+            throw new RuntimeException("Partner unavailable");
+        }));
+        store.execute("booking:user:1", "b", request, calls::incrementAndGet);
+        store.execute("booking:user:1", "a", request, calls::incrementAndGet);
+        // Over the limit: the oldest live key is b, not the retried a
+        store.execute("booking:user:1", "c", request, calls::incrementAndGet);
+
+        assertEquals(2, store.execute("booking:user:1", "a", request, calls::incrementAndGet));
+        assertEquals(4, store.execute("booking:user:1", "b", request, calls::incrementAndGet));
+    }
+}
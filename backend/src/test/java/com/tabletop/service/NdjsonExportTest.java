@@ -0,0 +1,88 @@
+package com.tabletop.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tabletop.dto.BookingDTO;
+import com.tabletop.dto.ReviewDTO;
+import com.tabletop.entity.Booking;
+import com.tabletop.entity.Restaurant;
+import com.tabletop.entity.Review;
+import com.tabletop.entity.User;
+import com.tabletop.repository.BookingRepository;
+import com.tabletop.repository.RestaurantRepository;
+import com.tabletop.repository.ReviewRepository;
+import com.tabletop.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NdjsonExportTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void createRows() {
+        User user = userRepository.findAll().get(0);
+        Restaurant restaurant = restaurantRepository.findAll().get(0);
+        for (int i = 0; i < 3; i++) {
+            bookingRepository.save(new Booking(user, restaurant, LocalDateTime.now().plusDays(i + 1), 2, null));
+            reviewRepository.save(new Review(user, restaurant, new BigDecimal("4.5"), "Exported " + i));
+        }
+    }
+
+    @Test
+    void everyReviewIsWrittenAsOneJsonLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reviewService.exportReviews(out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(reviewRepository.count(), lines.size());
+        for (String line : lines) {
+            objectMapper.readValue(line, ReviewDTO.class);
+        }
+    }
+
+    @Test
+    void everyBookingIsWrittenAsOneJsonLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookingService.exportBookings(out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(bookingRepository.count(), lines.size());
+        for (String line : lines) {
+            objectMapper.readValue(line, BookingDTO.class);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.tabletop.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PartnerCircuitBreakerTest {
+
+    private PartnerCircuitBreaker circuitBreaker;
+
+    private CatalogVersion catalogVersion;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new PartnerCircuitBreaker();
+        catalogVersion = new CatalogVersion();
+        ReflectionTestUtils.setField(circuitBreaker, "catalogVersion", catalogVersion);
+        ReflectionTestUtils.setField(circuitBreaker, "windowSize", 4);
+        ReflectionTestUtils.setField(circuitBreaker, "minimumCalls", 2);
+        ReflectionTestUtils.setField(circuitBreaker, "failureRateThreshold", 50);
+        ReflectionTestUtils.setField(circuitBreaker, "slowCallMs", 1_000L);
+        ReflectionTestUtils.setField(circuitBreaker, "slowCallRateThreshold", 80);
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMs", 50L);
+        ReflectionTestUtils.setField(circuitBreaker, "halfOpenCalls", 1);
+    }
+
+    @Test
+    void sweepHalfOpensExpiredCircuitAndBumpsCatalogVersion() throws InterruptedException {
+        circuitBreaker.recordFailure(1L, 10);
+        circuitBreaker.recordFailure(1L, 10);
+        assertFalse(circuitBreaker.isCallPermitted(1L));
+
+        circuitBreaker.halfOpenExpiredCircuits();
+        assertFalse(circuitBreaker.isCallPermitted(1L));
+
+        String openETag = catalogVersion.getETag();
+        Thread.sleep(60);
+        circuitBreaker.halfOpenExpiredCircuits();
+
+        assertTrue(circuitBreaker.isCallPermitted(1L));
+        assertNotEquals(openETag, catalogVersion.getETag());
+        assertEquals(PartnerCircuitBreaker.State.HALF_OPEN, circuitBreaker.getCircuitStates().get(1L).get("state"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.tabletop.service;
+
+import com.tabletop.repository.ReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RatingHistogramIndexRebuildTest {
+
+    private final ReviewRepository reviewRepository = mock(ReviewRepository.class);
+    private DataSourceTransactionManager transactionManager;
+    private RatingHistogramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:histograms", "sa", "");
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        IndexRebuildSupport rebuildSupport = new IndexRebuildSupport();
+        ReflectionTestUtils.setField(rebuildSupport, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(rebuildSupport, "dataSource", dataSource);
+
+        index = new RatingHistogramIndex();
+        ReflectionTestUtils.setField(index, "reviewRepository", reviewRepository);
+        ReflectionTestUtils.setField(index, "rebuildSupport", rebuildSupport);
+    }
+
+    @Test
+    void reviewAddedDuringRebuildIsKept() throws InterruptedException {
+        Thread[] writer = new Thread[1];
+        // The review event arrives after the snapshot was read but before the rebuild publishes it
+        when(reviewRepository.countReviewsGroupedByRestaurantAndRating()).thenAnswer(invocation -> {
+            writer[0] = new Thread(() -> index.onReviewAdded(1L, new BigDecimal("3.0")));
+            writer[0].start();
+            writer[0].join(200);
+            return rows(new Object[] {1L, new BigDecimal("5.0"), 1L});
+        });
+
+        index.rebuild();
+        writer[0].join();
+
+        RatingHistogramIndex.Summary summary = index.getSummary(1L);
+        assertEquals(2, summary.getReviewCount());
+        assertEquals(new BigDecimal("8.00"), summary.getRatingSum());
+    }
+
+    @Test
+    void reviewCommittedDuringRebuildIsCountedOnce() throws InterruptedException {
+        // By the time the rebuild reads, the review transaction has committed
+        when(reviewRepository.countReviewsGroupedByRestaurantAndRating())
+                .thenReturn(rows(new Object[] {1L, new BigDecimal("4.5"), 1L}));
+
+        Thread[] rebuild = new Thread[1];
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            index.holdRebuildUntilTransactionCompletes();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    index.onReviewAdded(1L, new BigDecimal("4.5"));
+                }
+            });
+
+            rebuild[0] = new Thread(index::rebuild);
+            rebuild[0].start();
+            try {
+                rebuild[0].join(200);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            assertTrue(rebuild[0].isAlive());
+            verify(reviewRepository, never()).countReviewsGroupedByRestaurantAndRating();
+        });
+        rebuild[0].join();
+
+        RatingHistogramIndex.Summary summary = index.getSummary(1L);
+        assertEquals(1, summary.getReviewCount());
+        assertEquals(1L, summary.getHistogram().get("4.5"));
+    }
+
+    @Test
+    void removingMoreReviewsThanCountedIsNotMasked() {
+        when(reviewRepository.countReviewsGroupedByRestaurantAndRating()).thenReturn(new ArrayList<>());
+        index.rebuild();
+
+        index.onReviewRemoved(1L, new BigDecimal("4.0"));
+
+        RatingHistogramIndex.Summary summary = index.getSummary(1L);
+        assertEquals(-1, summary.getReviewCount());
+        assertEquals(-1L, summary.getHistogram().get("4.0"));
+    }
+
+    private List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
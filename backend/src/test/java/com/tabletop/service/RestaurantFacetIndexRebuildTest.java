@@ -0,0 +1,58 @@
+package com.tabletop.service;
+
+import com.tabletop.entity.Restaurant;
+import com.tabletop.repository.RestaurantRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RestaurantFacetIndexRebuildTest {
+
+    @Test
+    void restaurantIndexedDuringRebuildIsKept() throws InterruptedException {
+        RestaurantFacetIndex index = new RestaurantFacetIndex();
+        RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+        ReflectionTestUtils.setField(index, "restaurantRepository", restaurantRepository);
+        ReflectionTestUtils.setField(index, "rebuildSupport", rebuildSupport());
+
+        Restaurant existing = restaurant(1L, "Colombo");
+        Restaurant created = restaurant(2L, "Colombo");
+        Thread[] writer = new Thread[1];
+        // The restaurant is created after the snapshot was read but before the rebuild publishes it
+        when(restaurantRepository.findAll()).thenAnswer(invocation -> {
+            writer[0] = new Thread(() -> index.index(created));
+            writer[0].start();
+            writer[0].join(200);
+            return new ArrayList<>(List.of(existing));
+        });
+
+        index.rebuild();
+        writer[0].join();
+
+        assertEquals(List.of(1L, 2L), index.filterIds("Colombo", null, null, null, 0L, 10));
+    }
+
+    private IndexRebuildSupport rebuildSupport() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:facets", "sa", "");
+        IndexRebuildSupport rebuildSupport = new IndexRebuildSupport();
+        ReflectionTestUtils.setField(rebuildSupport, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(rebuildSupport, "dataSource", dataSource);
+        return rebuildSupport;
+    }
+
+    private Restaurant restaurant(Long id, String city) {
+        Restaurant restaurant = new Restaurant("Restaurant " + id, "Described", id + " Main Street", city,
+                "Sri Lankan", new BigDecimal("4.0"));
+        restaurant.setId(id);
+        return restaurant;
+    }
+}
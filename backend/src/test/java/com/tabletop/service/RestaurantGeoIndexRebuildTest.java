@@ -0,0 +1,62 @@
+package com.tabletop.service;
+
+import com.tabletop.entity.Restaurant;
+import com.tabletop.repository.RestaurantRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RestaurantGeoIndexRebuildTest {
+
+    @Test
+    void restaurantIndexedDuringRebuildIsKept() throws InterruptedException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:geo", "sa", "");
+        IndexRebuildSupport rebuildSupport = new IndexRebuildSupport();
+        ReflectionTestUtils.setField(rebuildSupport, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(rebuildSupport, "dataSource", dataSource);
+
+        RestaurantGeoIndex index = new RestaurantGeoIndex();
+        RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+        ReflectionTestUtils.setField(index, "restaurantRepository", restaurantRepository);
+        ReflectionTestUtils.setField(index, "rebuildSupport", rebuildSupport);
+        ReflectionTestUtils.setField(index, "cellDegrees", 0.1);
+
+        Restaurant existing = restaurant(1L, 6.9271, 79.8612);
+        Restaurant created = restaurant(2L, 6.9300, 79.8600);
+        Thread[] writer = new Thread[1];
+        // The restaurant is created after the snapshot was read but before the rebuild publishes it
+        when(restaurantRepository.findByIsActiveTrue()).thenAnswer(invocation -> {
+            writer[0] = new Thread(() -> index.index(created));
+            writer[0].start();
+            writer[0].join(200);
+            return new ArrayList<>(List.of(existing));
+        });
+
+        index.rebuild();
+        writer[0].join();
+
+        List<Long> nearby = index.findNearby(6.9271, 79.8612, 5.0, 10, null, null).stream()
+                .map(RestaurantGeoIndex.Nearby::getRestaurantId)
+                .collect(Collectors.toList());
+        assertEquals(List.of(1L, 2L), nearby);
+    }
+
+    private Restaurant restaurant(Long id, double latitude, double longitude) {
+        Restaurant restaurant = new Restaurant("Restaurant " + id, "Described", id + " Main Street", "Colombo",
+                "Sri Lankan", new BigDecimal("4.0"));
+        restaurant.setId(id);
+        restaurant.setLatitude(latitude);
+        restaurant.setLongitude(longitude);
+        return restaurant;
+    }
+}
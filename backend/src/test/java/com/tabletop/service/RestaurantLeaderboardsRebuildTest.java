@@ -0,0 +1,112 @@
+package com.tabletop.service;
+
+import com.tabletop.entity.Restaurant;
+import com.tabletop.repository.BookingRepository;
+import com.tabletop.repository.RestaurantRepository;
+import com.tabletop.repository.ReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RestaurantLeaderboardsRebuildTest {
+
+    private final RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+    private final ReviewRepository reviewRepository = mock(ReviewRepository.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private DataSourceTransactionManager transactionManager;
+    private RestaurantLeaderboards leaderboards;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:leaderboards", "sa", "");
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        IndexRebuildSupport rebuildSupport = new IndexRebuildSupport();
+        ReflectionTestUtils.setField(rebuildSupport, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(rebuildSupport, "dataSource", dataSource);
+
+        leaderboards = new RestaurantLeaderboards();
+        ReflectionTestUtils.setField(leaderboards, "size", 10);
+        ReflectionTestUtils.setField(leaderboards, "restaurantRepository", restaurantRepository);
+        ReflectionTestUtils.setField(leaderboards, "reviewRepository", reviewRepository);
+        ReflectionTestUtils.setField(leaderboards, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(leaderboards, "rebuildSupport", rebuildSupport);
+        when(reviewRepository.summarizeReviewsGroupedByRestaurant()).thenReturn(new ArrayList<>());
+        when(bookingRepository.findConfirmedBookingTimesFrom(any())).thenReturn(new ArrayList<>());
+    }
+
+    @Test
+    void restaurantChangedDuringRebuildIsKept() throws InterruptedException {
+        Restaurant created = new Restaurant("Restaurant 2", "Described", "2 Main Street", "Colombo",
+                "Sri Lankan", new BigDecimal("4.5"));
+        created.setId(2L);
+        Thread[] writer = new Thread[1];
+        // The restaurant is created after the snapshot was read but before the rebuild publishes it
+        when(restaurantRepository.findAllRatingsAndStatus()).thenAnswer(invocation -> {
+            writer[0] = new Thread(() -> leaderboards.onRestaurantChanged(created));
+            writer[0].start();
+            writer[0].join(200);
+            return rows(new Object[] {1L, new BigDecimal("4.0"), true});
+        });
+
+        leaderboards.rebuild();
+        writer[0].join();
+
+        assertEquals(List.of(2L, 1L), leaderboards.getTopRated(10));
+    }
+
+    @Test
+    void reviewCommittedDuringRebuildIsCountedOnce() throws InterruptedException {
+        when(restaurantRepository.findAllRatingsAndStatus())
+                .thenReturn(rows(new Object[] {1L, new BigDecimal("4.0"), true}));
+        // By the time the rebuild reads, the review transaction has committed
+        when(reviewRepository.summarizeReviewsGroupedByRestaurant())
+                .thenReturn(rows(new Object[] {1L, 1L, new BigDecimal("5")}));
+
+        Thread[] rebuild = new Thread[1];
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            leaderboards.holdRebuildUntilTransactionCompletes();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    leaderboards.onReviewChanged(1L, 1, new BigDecimal("5"));
+                }
+            });
+
+            rebuild[0] = new Thread(leaderboards::rebuild);
+            rebuild[0].start();
+            try {
+                rebuild[0].join(200);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            assertTrue(rebuild[0].isAlive());
+            verify(restaurantRepository, never()).findAllRatingsAndStatus();
+        });
+        rebuild[0].join();
+
+        Map<?, ?> restaurants = (Map<?, ?>) ReflectionTestUtils.getField(leaderboards, "restaurants");
+        assertEquals(1L, ReflectionTestUtils.getField(restaurants.get(1L), "reviewCount"));
+    }
+
+    private List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
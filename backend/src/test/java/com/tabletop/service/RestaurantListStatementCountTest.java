@@ -0,0 +1,118 @@
+package com.tabletop.service;
+
+import com.tabletop.dto.RestaurantDTO;
+import com.tabletop.entity.Restaurant;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Restaurant list endpoints used to run two count queries per restaurant. Their statement
+ * count must now stay the same whether a page holds a few restaurants or many.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RestaurantListStatementCountTest {
+
+    private static final String CITY = "Statementville";
+    private static final int RESTAURANTS = 30;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    void createRestaurants() {
+        for (int i = 0; i < RESTAURANTS; i++) {
+            restaurantService.createRestaurant(new Restaurant("Statement Bistro " + i, "Counted", 
+                    i + " Query Lane", CITY, "Fusion", new BigDecimal("4.0")));
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void allRestaurantsPageCostsTheSameAtAnySize() {
+        long small = statementsFor(() -> restaurantService.getAllRestaurants(0, 3), 3);
+        long large = statementsFor(() -> restaurantService.getAllRestaurants(0, RESTAURANTS), RESTAURANTS);
+        assertEquals(small, large);
+        assertTrue(large <= 2, "restaurants and their stats, got " + large);
+    }
+
+    @Test
+    void repeatedAllRestaurantsPageIsServedFromTheQueryCache() {
+        entityManagerFactory.getCache().evictAll();
+        restaurantService.getAllRestaurants(0, RESTAURANTS);
+        statistics.clear();
+
+        List<RestaurantDTO> restaurants = restaurantService.getAllRestaurants(0, RESTAURANTS);
+
+        assertTrue(restaurants.size() >= RESTAURANTS);
+        assertEquals(1, statistics.getCacheRegionStatistics("query.restaurants.active").getHitCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 1, "only their stats, got " 
+                + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void filteredSearchCostsTheSameAtAnySize() {
+        long small = statementsFor(() -> restaurantService.searchRestaurants(CITY, null, null, 0, 3), 3);
+        long large = statementsFor(
+                () -> restaurantService.searchRestaurants(CITY, null, null, 0, RESTAURANTS), RESTAURANTS);
+        assertEquals(small, large);
+        assertTrue(large <= 2, "restaurants and their stats, got " + large);
+    }
+
+    @Test
+    void publicListCostsTheSameAtAnySize() {
+        long small = statementsFor(
+                () -> restaurantService.getPublicRestaurants(CITY, null, null, true, 0, 3), 3);
+        long large = statementsFor(
+                () -> restaurantService.getPublicRestaurants(CITY, null, null, true, 0, RESTAURANTS), RESTAURANTS);
+        assertEquals(small, large);
+        assertTrue(large <= 2, "restaurants and their stats, got " + large);
+    }
+
+    @Test
+    void textSearchCostsTheSameAsOneRestaurant() {
+        long one = statementsFor(() -> restaurantService.searchByText("Statement Bistro 7"), 1);
+        long all = statementsFor(() -> restaurantService.searchByText("Statement"), RESTAURANTS);
+        assertEquals(one, all);
+        assertTrue(all <= 2, "restaurants and their stats, got " + all);
+    }
+
+    @Test
+    void topRatedCostsTheSameAtAnySize() {
+        long small = statementsFor(() -> restaurantService.getTopRatedRestaurants(3), 3);
+        long large = statementsFor(() -> restaurantService.getTopRatedRestaurants(RESTAURANTS), RESTAURANTS);
+        assertEquals(small, large);
+        assertTrue(large <= 2, "restaurants and their stats, got " + large);
+    }
+
+    // Runs the call against a cold second-level cache and returns the statements it prepared
+    private long statementsFor(Supplier<List<RestaurantDTO>> call, int minimumResults) {
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        List<RestaurantDTO> restaurants = call.get();
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(restaurants.size() >= minimumResults, "expected at least " + minimumResults 
+                + " restaurants, got " + restaurants.size());
+        return statements;
+    }
+}
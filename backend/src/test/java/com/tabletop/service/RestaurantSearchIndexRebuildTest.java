@@ -0,0 +1,57 @@
+package com.tabletop.service;
+
+import com.tabletop.entity.Restaurant;
+import com.tabletop.repository.RestaurantRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RestaurantSearchIndexRebuildTest {
+
+    @Test
+    void restaurantIndexedDuringRebuildIsKept() throws InterruptedException {
+        RestaurantSearchIndex index = new RestaurantSearchIndex();
+        RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+        ReflectionTestUtils.setField(index, "restaurantRepository", restaurantRepository);
+        ReflectionTestUtils.setField(index, "rebuildSupport", rebuildSupport());
+
+        Restaurant existing = restaurant(1L, "Lagoon Kitchen");
+        Restaurant created = restaurant(2L, "Lagoon Grill");
+        Thread[] writer = new Thread[1];
+        // The restaurant is created after the snapshot was read but before the rebuild publishes it
+        when(restaurantRepository.findByIsActiveTrue()).thenAnswer(invocation -> {
+            writer[0] = new Thread(() -> index.index(created));
+            writer[0].start();
+            writer[0].join(200);
+            return List.of(existing);
+        });
+
+        index.rebuild();
+        writer[0].join();
+
+        assertEquals(List.of(1L, 2L), index.search("lagoon", 10));
+    }
+
+    private IndexRebuildSupport rebuildSupport() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:search", "sa", "");
+        IndexRebuildSupport rebuildSupport = new IndexRebuildSupport();
+        ReflectionTestUtils.setField(rebuildSupport, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(rebuildSupport, "dataSource", dataSource);
+        return rebuildSupport;
+    }
+
+    private Restaurant restaurant(Long id, String name) {
+        Restaurant restaurant = new Restaurant(name, "Seafood by the water", id + " Beach Road", "Negombo",
+                "Seafood", new BigDecimal("4.0"));
+        restaurant.setId(id);
+        return restaurant;
+    }
+}
@@ -0,0 +1,100 @@
+package com.tabletop.service;
+
+import com.tabletop.entity.Restaurant;
+import com.tabletop.entity.RestaurantStats;
+import com.tabletop.entity.Review;
+import com.tabletop.entity.User;
+import com.tabletop.repository.BookingRepository;
+import com.tabletop.repository.RestaurantRepository;
+import com.tabletop.repository.RestaurantStatsRepository;
+import com.tabletop.repository.ReviewRepository;
+import com.tabletop.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RestaurantStatsReconcileTest {
+
+    @Autowired
+    private RestaurantStatsService restaurantStatsService;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private RestaurantStatsRepository statsRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void reconcileRecomputesDriftedRowsFromSourceTables() {
+        Map<Long, Long> bookingCounts = new HashMap<>();
+        for (Object[] row : bookingRepository.countConfirmedBookingsGroupedByRestaurant()) {
+            bookingCounts.put((Long) row[0], (Long) row[1]);
+        }
+        Map<Long, Long> reviewCounts = new HashMap<>();
+        for (Object[] row : reviewRepository.summarizeReviewsGroupedByRestaurant()) {
+            reviewCounts.put((Long) row[0], (Long) row[1]);
+        }
+        Long restaurantId = restaurantRepository.findAll().get(0).getId();
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            statsRepository.insertIfMissing(restaurantId);
+            statsRepository.adjustConfirmedBookings(restaurantId, 7);
+            statsRepository.adjustReviews(restaurantId, 3, new BigDecimal("12.5"));
+            statsRepository.refreshAverageRating(restaurantId);
+        });
+
+        restaurantStatsService.reconcile();
+
+        RestaurantStats stats = statsRepository.findById(restaurantId).orElseThrow();
+        assertEquals(bookingCounts.getOrDefault(restaurantId, 0L), stats.getConfirmedBookings());
+        assertEquals(reviewCounts.getOrDefault(restaurantId, 0L), stats.getReviewCount());
+    }
+
+    @Test
+    void reconcileLeavesTwoDecimalRatingSumsAlone() {
+        User user = userRepository.findAll().get(0);
+        Restaurant restaurant = restaurantRepository.save(new Restaurant("Quarter Star Cafe", "Counted",
+                "1 Rounding Road", "Scaleville", "Fusion", new BigDecimal("4.0")));
+        BigDecimal rating = new BigDecimal("4.25");
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            reviewRepository.save(new Review(user, restaurant, rating, "Nearly perfect"));
+            restaurantStatsService.onReviewAdded(restaurant.getId(), rating);
+        });
+
+        // The first run may repair rows other tests left behind; after that nothing has drifted
+        restaurantStatsService.reconcile();
+        String eTag = catalogVersion.getETag();
+        restaurantStatsService.reconcile();
+
+        assertEquals(eTag, catalogVersion.getETag());
+        RestaurantStats stats = statsRepository.findById(restaurant.getId()).orElseThrow();
+        assertEquals(0, rating.compareTo(stats.getRatingSum()));
+        assertEquals(0, rating.compareTo(stats.getAverageRating()));
+    }
+}
@@ -3,13 +3,14 @@ import apiClient from './config';
 // Booking API endpoints
 export const bookingApi = {
   // Get all bookings
-  getAllBookings: () => apiClient.get('/api/bookings'),
+  getAllBookings: (page) => apiClient.get('/api/bookings', { params: page }),
   
   // Get user bookings
-  getUserBookings: (userId) => apiClient.get(`/api/bookings/user/${userId}`),
+  getUserBookings: (userId, page) => apiClient.get(`/api/bookings/user/${userId}`, { params: page }),
   
   // Get restaurant bookings
-  getRestaurantBookings: (restaurantId) => apiClient.get(`/api/bookings/restaurant/${restaurantId}`),
+  getRestaurantBookings: (restaurantId, page) => 
+    apiClient.get(`/api/bookings/restaurant/${restaurantId}`, { params: page }),
   
   // Create booking
   createBooking: (booking) => apiClient.post('/api/bookings', booking),
@@ -23,4 +24,8 @@ export const bookingApi = {
   // Check availability
   checkAvailability: (restaurantId, bookingDateTime) => 
     apiClient.get(`/api/bookings/availability?restaurantId=${restaurantId}&bookingDateTime=${bookingDateTime}`),
+  
+  // Check availability for many restaurants over a date range in one call
+  getAvailabilityGrid: (restaurantIds, from, to, slotMinutes = 30, numberOfPeople = 1) =>
+    apiClient.get(`/api/bookings/availability/grid?restaurantIds=${restaurantIds.join(',')}&from=${from}&to=${to}&slotMinutes=${slotMinutes}&numberOfPeople=${numberOfPeople}`),
 };
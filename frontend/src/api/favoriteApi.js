@@ -3,7 +3,7 @@ import apiClient from './config';
 // Favorite API endpoints
 export const favoriteApi = {
   // Get user's favorite restaurants
-  getFavorites: (userId) => apiClient.get(`/api/favorites/user/${userId}`),
+  getFavorites: (userId, page) => apiClient.get(`/api/favorites/user/${userId}`, { params: page }),
   
   // Add restaurant to favorites
   addToFavorites: (userId, restaurantId) => 
@@ -15,5 +15,11 @@ export const favoriteApi = {
   
   // Check if restaurant is favorited by user
   isFavorited: (userId, restaurantId) => 
-    apiClient.get(`/api/favorites/user/${userId}/restaurant/${restaurantId}`)
+    apiClient.get(`/api/favorites/user/${userId}/restaurant/${restaurantId}`),
+  
+  // Get which of the given restaurants are favorited by user
+  getFavoritedRestaurantIds: (userId, restaurantIds) => 
+    apiClient.get(`/api/favorites/user/${userId}/favorited`, {
+      params: { restaurantIds: restaurantIds.join(',') }
+    })
 };
@@ -0,0 +1,22 @@
+// Keyset-paginated list endpoints return one page at a time and put the cursor for the
+// next page in the X-Next-Cursor header. Lists show the first page and fetch the next
+// one on demand with fetchPage; fetchAllPages drains every page and is only for views
+// that need the full set, such as the admin totals.
+const PAGE_SIZE = 20;
+const DRAIN_PAGE_SIZE = 200;
+
+export const fetchPage = async (fetchPageFn, cursor) => {
+  const response = await fetchPageFn(cursor ? { cursor, limit: PAGE_SIZE } : { limit: PAGE_SIZE });
+  return { rows: response.data, nextCursor: response.headers['x-next-cursor'] || null };
+};
+
+export const fetchAllPages = async (fetchPageFn) => {
+  const rows = [];
+  let cursor;
+  do {
+    const response = await fetchPageFn(cursor ? { cursor, limit: DRAIN_PAGE_SIZE } : { limit: DRAIN_PAGE_SIZE });
+    rows.push(...response.data);
+    cursor = response.headers['x-next-cursor'];
+  } while (cursor);
+  return rows;
+};
@@ -2,8 +2,8 @@ import apiClient from './config';
 
 // Restaurant API endpoints
 export const restaurantApi = {
-  // Get all restaurants
-  getAllRestaurants: () => apiClient.get('/api/restaurants'),
+  // Get all restaurants (page: optional { cursor, limit }; next cursor is in the X-Next-Cursor header)
+  getAllRestaurants: (page) => apiClient.get('/api/restaurants', { params: page }),
   
   // Get restaurant by ID
   getRestaurantById: (id) => apiClient.get(`/api/restaurants/${id}`),
@@ -19,9 +19,23 @@ export const restaurantApi = {
     return apiClient.get(`/api/restaurants/search?${params.toString()}`);
   },
   
+  // Search with filters and get per-city/cuisine/rating counts for filter chips
+  searchRestaurantsFaceted: (filters) => {
+    const params = new URLSearchParams();
+    Object.keys(filters).forEach(key => {
+      if (filters[key]) {
+        params.append(key, filters[key]);
+      }
+    });
+    return apiClient.get(`/api/restaurants/search/faceted?${params.toString()}`);
+  },
+  
   // Text-based search
   searchByText: (searchTerm) => apiClient.get(`/api/restaurants/search/text?q=${searchTerm}`),
   
+  // Find restaurants near a point (params: lat, lng, radiusKm, limit, cuisine, minRating)
+  findNearbyRestaurants: (params) => apiClient.get('/api/restaurants/nearby', { params }),
+  
   // Get top-rated restaurants
   getTopRatedRestaurants: () => apiClient.get('/api/restaurants/top-rated'),
   
@@ -3,15 +3,19 @@ import apiClient from './config';
 // Review API endpoints
 export const reviewApi = {
   // Get all reviews
-  getAllReviews: () => apiClient.get('/api/reviews'),
+  getAllReviews: (page) => apiClient.get('/api/reviews', { params: page }),
   
   // Get reviews by restaurant
-  getReviewsByRestaurant: (restaurantId) => 
-    apiClient.get(`/api/reviews/restaurant/${restaurantId}`),
+  getReviewsByRestaurant: (restaurantId, page) => 
+    apiClient.get(`/api/reviews/restaurant/${restaurantId}`, { params: page }),
+  
+  // Get rating histogram and live average for a restaurant
+  getRatingSummary: (restaurantId) => 
+    apiClient.get(`/api/reviews/restaurant/${restaurantId}/summary`),
   
   // Get reviews by user
-  getReviewsByUser: (userId) => 
-    apiClient.get(`/api/reviews/user/${userId}`),
+  getReviewsByUser: (userId, page) => 
+    apiClient.get(`/api/reviews/user/${userId}`, { params: page }),
   
   // Create a new review
   createReview: (reviewData) => 
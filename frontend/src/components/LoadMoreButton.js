@@ -0,0 +1,19 @@
+import React from 'react';
+import { Button, Spinner } from 'react-bootstrap';
+
+// Shown under a paginated list while the server reports another page
+const LoadMoreButton = ({ hasMore, loading, onClick }) => {
+  if (!hasMore) {
+    return null;
+  }
+
+  return (
+    <div className="text-center mb-4">
+      <Button variant="outline-primary" onClick={onClick} disabled={loading}>
+        {loading ? <Spinner animation="border" size="sm" /> : 'Load more'}
+      </Button>
+    </div>
+  );
+};
+
+export default LoadMoreButton;
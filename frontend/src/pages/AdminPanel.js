@@ -4,6 +4,7 @@ import { FaPlus, FaEdit, FaTrash, FaEye, FaChartBar, FaUsers, FaUtensils, FaCale
 import toast from 'react-hot-toast';
 import { restaurantApi } from '../api/restaurantApi';
 import { bookingApi } from '../api/bookingApi';
+import { fetchAllPages } from '../api/pagination';
 
 const AdminPanel = () => {
   const [restaurants, setRestaurants] = useState([]);
@@ -32,12 +33,13 @@ const AdminPanel = () => {
   const fetchData = async () => {
     try {
       setLoading(true);
-      const [restaurantsRes, bookingsRes] = await Promise.all([
-        restaurantApi.getAllRestaurants(),
-        bookingApi.getAllBookings()
+      // The dashboard totals and most-booked ranking need every row, so both lists are drained
+      const [allRestaurants, allBookings] = await Promise.all([
+        fetchAllPages((page) => restaurantApi.getAllRestaurants(page)),
+        fetchAllPages((page) => bookingApi.getAllBookings(page))
       ]);
-      setRestaurants(restaurantsRes.data);
-      setBookings(bookingsRes.data);
+      setRestaurants(allRestaurants);
+      setBookings(allBookings);
     } catch (error) {
       console.error('Error fetching data:', error);
       toast.error('Error loading admin data');
@@ -4,10 +4,14 @@ import { FaStar, FaMapMarkerAlt, FaUtensils, FaHeart } from 'react-icons/fa';
 import { Link } from 'react-router-dom';
 import toast from 'react-hot-toast';
 import { favoriteApi } from '../api/favoriteApi';
+import { fetchPage } from '../api/pagination';
+import LoadMoreButton from '../components/LoadMoreButton';
 
 const Favorites = () => {
   const [favorites, setFavorites] = useState([]);
   const [loading, setLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => {
     fetchFavorites();
@@ -24,8 +28,9 @@ const Favorites = () => {
       }
       
       const parsedUser = JSON.parse(user);
-      const response = await favoriteApi.getFavorites(parsedUser.id);
-      setFavorites(response.data);
+      const page = await fetchPage((params) => favoriteApi.getFavorites(parsedUser.id, params));
+      setFavorites(page.rows);
+      setNextCursor(page.nextCursor);
     } catch (error) {
       console.error('Error fetching favorites:', error);
       toast.error('Error loading your favorites');
@@ -34,6 +39,21 @@ const Favorites = () => {
     }
   };
 
+  const loadMoreFavorites = async () => {
+    try {
+      setLoadingMore(true);
+      const parsedUser = JSON.parse(localStorage.getItem('user'));
+      const page = await fetchPage((params) => favoriteApi.getFavorites(parsedUser.id, params), nextCursor);
+      setFavorites(prev => [...prev, ...page.rows]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Error fetching favorites:', error);
+      toast.error('Error loading your favorites');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleRemoveFavorite = async (restaurantId) => {
     try {
       const user = localStorage.getItem('user');
@@ -163,6 +183,8 @@ const Favorites = () => {
               ))}
             </Row>
           )}
+
+          <LoadMoreButton hasMore={!!nextCursor} loading={loadingMore} onClick={loadMoreFavorites} />
         </Col>
       </Row>
     </Container>
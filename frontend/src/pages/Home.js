@@ -4,11 +4,18 @@ import { FaSearch, FaStar, FaMapMarkerAlt, FaUtensils, FaHeart } from 'react-ico
 import { Link } from 'react-router-dom';
 import { restaurantApi } from '../api/restaurantApi';
 import { favoriteApi } from '../api/favoriteApi';
+import { fetchPage } from '../api/pagination';
+import LoadMoreButton from '../components/LoadMoreButton';
 import toast from 'react-hot-toast';
 
+// The favorited lookup accepts at most this many restaurant IDs per call
+const FAVORITED_BATCH_SIZE = 500;
+
 const Home = () => {
   const [restaurants, setRestaurants] = useState([]);
   const [loading, setLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [searchTerm, setSearchTerm] = useState('');
   const [isLoggedIn, setIsLoggedIn] = useState(false);
   const [currentUser, setCurrentUser] = useState(null);
@@ -28,7 +35,6 @@ const Home = () => {
       const { user } = event.detail;
       setIsLoggedIn(true);
       setCurrentUser(user);
-      fetchFavorites(user.id);
     };
     
     const handleUserLogout = () => {
@@ -54,28 +60,48 @@ const Home = () => {
       const parsedUser = JSON.parse(user);
       setIsLoggedIn(true);
       setCurrentUser(parsedUser);
-      fetchFavorites(parsedUser.id);
     } else {
       setIsLoggedIn(false);
       setCurrentUser(null);
     }
   };
 
-  const fetchFavorites = async (userId) => {
-    try {
-      const response = await favoriteApi.getFavorites(userId);
-      const favoriteIds = new Set(response.data.map(fav => fav.restaurantId));
-      setFavorites(favoriteIds);
-    } catch (error) {
-      console.error('Error fetching favorites:', error);
+  const fetchFavorites = async (userId, restaurantIds) => {
+    const favoriteIds = new Set();
+    for (let i = 0; i < restaurantIds.length; i += FAVORITED_BATCH_SIZE) {
+      const batch = restaurantIds.slice(i, i + FAVORITED_BATCH_SIZE);
+      const response = await favoriteApi.getFavoritedRestaurantIds(userId, batch);
+      response.data.forEach(restaurantId => favoriteIds.add(restaurantId));
     }
+    return favoriteIds;
   };
 
+  // Only the restaurant cards on screen are checked, whenever the list or the user changes
+  useEffect(() => {
+    if (!currentUser || restaurants.length === 0) {
+      return undefined;
+    }
+
+    let cancelled = false;
+    fetchFavorites(currentUser.id, restaurants.map(restaurant => restaurant.id))
+      .then(favoriteIds => {
+        if (!cancelled) {
+          setFavorites(favoriteIds);
+        }
+      })
+      .catch(error => console.error('Error fetching favorites:', error));
+
+    return () => {
+      cancelled = true;
+    };
+  }, [currentUser, restaurants]);
+
   const fetchRestaurants = async () => {
     try {
       setLoading(true);
-      const response = await restaurantApi.getAllRestaurants();
-      setRestaurants(response.data);
+      const page = await fetchPage((params) => restaurantApi.getAllRestaurants(params));
+      setRestaurants(page.rows);
+      setNextCursor(page.nextCursor);
     } catch (error) {
       console.error('Error fetching restaurants:', error);
     } finally {
@@ -83,10 +109,24 @@ const Home = () => {
     }
   };
 
+  const loadMoreRestaurants = async () => {
+    try {
+      setLoadingMore(true);
+      const page = await fetchPage((params) => restaurantApi.getAllRestaurants(params), nextCursor);
+      setRestaurants(prev => [...prev, ...page.rows]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Error fetching restaurants:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleSearch = async (e) => {
     e.preventDefault();
     try {
       setLoading(true);
+      setNextCursor(null);
       
       if (searchTerm) {
         const response = await restaurantApi.searchByText(searchTerm);
@@ -351,6 +391,8 @@ const Home = () => {
           ))}
         </Row>
 
+        <LoadMoreButton hasMore={!!nextCursor} loading={loadingMore} onClick={loadMoreRestaurants} />
+
         {restaurants.length === 0 && !loading && (
           <div className="text-center py-5">
             <h3>No restaurants found</h3>
@@ -4,11 +4,15 @@ import { FaCalendarAlt, FaUsers, FaMapMarkerAlt, FaUtensils, FaClock } from 'rea
 import { Link } from 'react-router-dom';
 import toast from 'react-hot-toast';
 import { bookingApi } from '../api/bookingApi';
+import { fetchPage } from '../api/pagination';
+import LoadMoreButton from '../components/LoadMoreButton';
 import { getBookingErrorMessage } from '../utils/errorMessages';
 
 const MyBookings = () => {
   const [bookings, setBookings] = useState([]);
   const [loading, setLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [user, setUser] = useState(null);
 
   useEffect(() => {
@@ -24,6 +28,7 @@ const MyBookings = () => {
     const handleUserLogout = () => {
       setUser(null);
       setBookings([]);
+      setNextCursor(null);
     };
 
     window.addEventListener('userLoggedIn', handleUserLogin);
@@ -53,8 +58,9 @@ const MyBookings = () => {
   const fetchBookings = async (userId) => {
     try {
       setLoading(true);
-      const response = await bookingApi.getUserBookings(userId);
-      setBookings(response.data);
+      const page = await fetchPage((params) => bookingApi.getUserBookings(userId, params));
+      setBookings(page.rows);
+      setNextCursor(page.nextCursor);
     } catch (error) {
       const errorMessage = getBookingErrorMessage(error);
       toast.error(errorMessage);
@@ -63,13 +69,28 @@ const MyBookings = () => {
     }
   };
 
+  const loadMoreBookings = async () => {
+    try {
+      setLoadingMore(true);
+      const page = await fetchPage((params) => bookingApi.getUserBookings(user.id, params), nextCursor);
+      setBookings(prev => [...prev, ...page.rows]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      const errorMessage = getBookingErrorMessage(error);
+      toast.error(errorMessage);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleCancelBooking = async (bookingId) => {
     try {
       await bookingApi.cancelBooking(bookingId);
       toast.success('Booking cancelled successfully');
-      if (user) {
-        fetchBookings(user.id); // Refresh the list
-      }
+      // Update in place so the pages loaded so far stay on screen
+      setBookings(prev => prev.map(booking =>
+        booking.id === bookingId ? { ...booking, status: 'CANCELLED' } : booking
+      ));
     } catch (error) {
       const errorMessage = getBookingErrorMessage(error);
       toast.error(errorMessage);
@@ -214,6 +235,8 @@ const MyBookings = () => {
               ))}
             </Row>
           )}
+
+          <LoadMoreButton hasMore={!!nextCursor} loading={loadingMore} onClick={loadMoreBookings} />
         </Col>
       </Row>
     </Container>
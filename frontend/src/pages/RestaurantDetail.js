@@ -6,7 +6,9 @@ import toast from 'react-hot-toast';
 import { restaurantApi } from '../api/restaurantApi';
 import { bookingApi } from '../api/bookingApi';
 import { reviewApi } from '../api/reviewApi';
+import { fetchPage } from '../api/pagination';
 import { favoriteApi } from '../api/favoriteApi';
+import LoadMoreButton from '../components/LoadMoreButton';
 import { getBookingErrorMessage, getFavoriteErrorMessage, getReviewErrorMessage } from '../utils/errorMessages';
 
 const RestaurantDetail = () => {
@@ -24,6 +26,8 @@ const RestaurantDetail = () => {
   const [isLoggedIn, setIsLoggedIn] = useState(false);
   const [currentUser, setCurrentUser] = useState(null);
   const [reviews, setReviews] = useState([]);
+  const [nextReviewCursor, setNextReviewCursor] = useState(null);
+  const [loadingMoreReviews, setLoadingMoreReviews] = useState(false);
   const [isFavorited, setIsFavorited] = useState(false);
   const [reviewForm, setReviewForm] = useState({
     rating: 5,
@@ -77,13 +81,27 @@ const RestaurantDetail = () => {
 
   const fetchReviews = async () => {
     try {
-      const response = await reviewApi.getReviewsByRestaurant(id);
-      setReviews(response.data);
+      const page = await fetchPage((params) => reviewApi.getReviewsByRestaurant(id, params));
+      setReviews(page.rows);
+      setNextReviewCursor(page.nextCursor);
     } catch (error) {
       console.error('Error fetching reviews:', error);
     }
   };
 
+  const loadMoreReviews = async () => {
+    try {
+      setLoadingMoreReviews(true);
+      const page = await fetchPage((params) => reviewApi.getReviewsByRestaurant(id, params), nextReviewCursor);
+      setReviews(prev => [...prev, ...page.rows]);
+      setNextReviewCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Error fetching reviews:', error);
+    } finally {
+      setLoadingMoreReviews(false);
+    }
+  };
+
   const checkIfFavorited = async (userId) => {
     try {
       const response = await favoriteApi.isFavorited(userId, id);
@@ -352,7 +370,7 @@ const RestaurantDetail = () => {
                     <div className="mb-3">
                       {renderStars(restaurant.rating)}
                     </div>
-                    <p className="text-muted">Based on {reviews.length} reviews</p>
+                    <p className="text-muted">Based on {restaurant.totalReviews || reviews.length} reviews</p>
                   </div>
                 ) : (
                   <div className="text-center py-4">
@@ -442,6 +460,8 @@ const RestaurantDetail = () => {
                     </p>
                   </div>
                 ))}
+
+                <LoadMoreButton hasMore={!!nextReviewCursor} loading={loadingMoreReviews} onClick={loadMoreReviews} />
               </Card.Body>
             </Card>
           </Col>